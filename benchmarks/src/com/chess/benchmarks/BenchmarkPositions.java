@@ -0,0 +1,24 @@
+package com.chess.benchmarks;
+
+import com.chess.engine.board.Board;
+import com.chess.perft.PerftPosition;
+
+/**
+ * Positions every benchmark is run on: the opening, a tactical middlegame full of captures,
+ * checks and castling, and a quieter middlegame. They come from the perft suite so that a
+ * benchmark result can be put next to a perft count.
+ */
+final class BenchmarkPositions {
+
+    static final String STANDARD = "STANDARD";
+    static final String KIWIPETE = "KIWIPETE";
+    static final String MIDDLEGAME = "MIDDLEGAME";
+
+    private BenchmarkPositions() {
+        throw new RuntimeException("Not Instantiable!");
+    }
+
+    static Board createBoard(final String name) {
+        return PerftPosition.valueOf(name).createBoard();
+    }
+}
@@ -0,0 +1,82 @@
+package com.chess.benchmarks;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.Piece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building boards and playing moves on the immutable {@link Board}, the path the GUI, PGN
+ * import and book code use.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param({BenchmarkPositions.STANDARD, BenchmarkPositions.KIWIPETE, BenchmarkPositions.MIDDLEGAME})
+    public String position;
+
+    private Board board;
+    private Collection<Piece> pieces;
+    private List<Move> legalMoves;
+
+    @Setup
+    public void setUp() {
+        this.board = BenchmarkPositions.createBoard(this.position);
+        this.pieces = this.board.getAllPieces();
+        this.legalMoves = new ArrayList<>(this.board.currentPlayer().getLegalMoves());
+    }
+
+    @Benchmark
+    public Board buildBoard() {
+        final Board.Builder builder = new Board.Builder();
+        for (final Piece piece : this.pieces) {
+            builder.setPiece(piece);
+        }
+        builder.setMoveMaker(this.board.currentPlayer().getAlliance());
+        builder.setEnPassantPawn(this.board.getEnPassantPawn());
+        return builder.build();
+    }
+
+    //every legal move of the side to move, so one op is one visit of a node's children
+    @Benchmark
+    public void executeMoves(final Blackhole blackhole) {
+        for (final Move move : this.legalMoves) {
+            blackhole.consume(move.execute());
+        }
+    }
+
+    //as above, with the legality check Player.makeMove does before executing
+    @Benchmark
+    public void makeMoves(final Blackhole blackhole) {
+        for (final Move move : this.legalMoves) {
+            blackhole.consume(this.board.currentPlayer().makeMove(move));
+        }
+    }
+
+    //legal moves of a fresh board, so Board and Player cannot hand back memoized lists
+    @Benchmark
+    public Collection<Move> buildBoardAndGenerateMoves() {
+        return buildBoard().currentPlayer().getLegalMoves();
+    }
+}
@@ -0,0 +1,59 @@
+package com.chess.benchmarks;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.player.ai.StandardBoardEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StandardBoardEvaluator on both position models. A Board memoizes its players' moves after
+ * the first evaluation, so the Board variant scores a fresh copy each time and includes the
+ * cost of {@link BoardBenchmark#buildBoard()}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+
+    @Param({BenchmarkPositions.STANDARD, BenchmarkPositions.KIWIPETE, BenchmarkPositions.MIDDLEGAME})
+    public String position;
+
+    private final StandardBoardEvaluator evaluator = StandardBoardEvaluator.get();
+    private Board board;
+    private SearchBoard searchBoard;
+
+    @Setup
+    public void setUp() {
+        this.board = BenchmarkPositions.createBoard(this.position);
+        this.searchBoard = new SearchBoard(this.board);
+    }
+
+    @Benchmark
+    public int evaluateSearchBoard() {
+        return this.evaluator.evaluate(this.searchBoard, 0);
+    }
+
+    @Benchmark
+    public int evaluateFreshBoard() {
+        final Board.Builder builder = new Board.Builder();
+        this.board.getAllPieces().forEach(builder::setPiece);
+        builder.setMoveMaker(this.board.currentPlayer().getAlliance());
+        builder.setEnPassantPawn(this.board.getEnPassantPawn());
+        return this.evaluator.evaluate(builder.build(), 0);
+    }
+}
@@ -0,0 +1,109 @@
+package com.chess.benchmarks;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.ai.LazySmp;
+import com.chess.engine.player.ai.ParallelAlphaBeta;
+import com.chess.engine.player.ai.TranspositionTable;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Root-split and Lazy SMP search at a fixed depth with a growing number of threads. Besides the
+ * searches per second, the nodes counter reports nodes per second, which is what shows how each
+ * scales. The table is allocated once per iteration and emptied before every search, outside the
+ * measured time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelSearchBenchmark {
+
+    @Param({BenchmarkPositions.STANDARD, BenchmarkPositions.KIWIPETE, BenchmarkPositions.MIDDLEGAME})
+    public String position;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    @Param({"7"})
+    public int depth;
+
+    private Board board;
+    private ForkJoinPool pool;
+    private TranspositionTable transpositionTable;
+    private ParallelAlphaBeta rootSplit;
+    private LazySmp lazySmp;
+    private PrintStream console;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class NodeCounter {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            this.nodes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        this.board = BenchmarkPositions.createBoard(this.position);
+        this.pool = new ForkJoinPool(this.threads);
+        this.console = SilentConsole.silence();
+    }
+
+    @Setup(Level.Iteration)
+    public void createSearches() {
+        this.transpositionTable = new TranspositionTable(16);
+        this.rootSplit = new ParallelAlphaBeta(this.depth, Long.MAX_VALUE / 2, this.transpositionTable, this.pool);
+        this.lazySmp = new LazySmp(this.depth, Long.MAX_VALUE / 2, this.transpositionTable, this.pool);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        this.transpositionTable.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.pool.shutdown();
+        SilentConsole.restore(this.console);
+    }
+
+    //a search's board count runs on from one execute to the next, only the difference is its own
+    @Benchmark
+    public Move rootSplit(final NodeCounter counter) {
+        final long boardsBefore = this.rootSplit.getNumBoardsEvaluated();
+        final Move move = this.rootSplit.execute(this.board);
+        counter.nodes += this.rootSplit.getNumBoardsEvaluated() - boardsBefore;
+        return move;
+    }
+
+    @Benchmark
+    public Move lazySmp(final NodeCounter counter) {
+        final long boardsBefore = this.lazySmp.getNumBoardsEvaluated();
+        final Move move = this.lazySmp.execute(this.board);
+        counter.nodes += this.lazySmp.getNumBoardsEvaluated() - boardsBefore;
+        return move;
+    }
+}
@@ -0,0 +1,60 @@
+package com.chess.benchmarks;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Piece.calculateLegalMoves for every piece of one type, both sides, in each position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PieceBenchmark {
+
+    @Param({BenchmarkPositions.STANDARD, BenchmarkPositions.KIWIPETE, BenchmarkPositions.MIDDLEGAME})
+    public String position;
+
+    @Param({"PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "KING"})
+    public String pieceType;
+
+    private Board board;
+    private List<Piece> pieces;
+
+    @Setup
+    public void setUp() {
+        this.board = BenchmarkPositions.createBoard(this.position);
+        this.pieces = new ArrayList<>();
+        for (final Piece piece : this.board.getAllPieces()) {
+            if (piece.getPieceType() == PieceType.valueOf(this.pieceType)) {
+                this.pieces.add(piece);
+            }
+        }
+    }
+
+    @Benchmark
+    public void calculateLegalMoves(final Blackhole blackhole) {
+        for (final Piece piece : this.pieces) {
+            blackhole.consume(piece.calculateLegalMoves(this.board));
+        }
+    }
+}
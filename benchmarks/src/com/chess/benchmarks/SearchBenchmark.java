@@ -0,0 +1,90 @@
+package com.chess.benchmarks;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.ai.AlphaBeta;
+import com.chess.engine.player.ai.MiniMax;
+import com.chess.engine.player.ai.TranspositionTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A whole fixed-depth search from the root, as the GUI runs it for the computer player. The
+ * alpha-beta search is measured with each of its pruning options switched on and off. The
+ * searcher and its table are built once and the table is emptied before every search, outside
+ * the measured time, so each search starts cold without paying for the table's allocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({BenchmarkPositions.STANDARD, BenchmarkPositions.KIWIPETE, BenchmarkPositions.MIDDLEGAME})
+    public String position;
+
+    @Param({"3"})
+    public int depth;
+
+    private Board board;
+    private TranspositionTable transpositionTable;
+    private AlphaBeta alphaBeta;
+    private PrintStream console;
+
+    @Setup
+    public void setUp() {
+        this.board = BenchmarkPositions.createBoard(this.position);
+        this.transpositionTable = new TranspositionTable(16);
+        this.alphaBeta = new AlphaBeta(this.depth + 2, this.transpositionTable);
+        this.console = SilentConsole.silence();
+    }
+
+    @TearDown
+    public void tearDown() {
+        SilentConsole.restore(this.console);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        this.transpositionTable.clear();
+    }
+
+    @State(Scope.Thread)
+    public static class PruningOptions {
+
+        @Param({"true", "false"})
+        public boolean nullMovePruning;
+
+        @Param({"true", "false"})
+        public boolean lateMoveReductions;
+    }
+
+    @Benchmark
+    public Move miniMax() {
+        return new MiniMax(this.depth).execute(this.board);
+    }
+
+    //the table is empty each time, so nothing is left in it from the last search
+    @Benchmark
+    public Move alphaBeta(final PruningOptions options) {
+        this.alphaBeta.setNullMovePruning(options.nullMovePruning);
+        this.alphaBeta.setLateMoveReductions(options.lateMoveReductions);
+        return this.alphaBeta.execute(this.board);
+    }
+}
@@ -0,0 +1,34 @@
+package com.chess.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * The searches report every move on the console, which a benchmark would time along with them.
+ * A benchmark swaps the console for one that drops everything while it runs, and puts the
+ * original back when it is done.
+ */
+final class SilentConsole {
+
+    private SilentConsole() {
+        throw new RuntimeException("Not Instantiable!");
+    }
+
+    //returns the console that was in place, for restore
+    static PrintStream silence() {
+        final PrintStream console = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(final int b) {
+            }
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+            }
+        }));
+        return console;
+    }
+
+    static void restore(final PrintStream console) {
+        System.setOut(console);
+    }
+}
@@ -35,6 +35,11 @@ public enum Alliance {
         public Player choosePlayer(final WhitePlayer whitePlayer, final BlackPlayer blackPlayer) {
             return whitePlayer;
         }
+
+        @Override
+        public Alliance opposite() {
+            return BLACK;
+        }
     },
     BLACK {
         @Override
@@ -65,6 +70,11 @@ public enum Alliance {
         public Player choosePlayer(final WhitePlayer whitePlayer, final BlackPlayer blackPlayer) {
             return blackPlayer;
         }
+
+        @Override
+        public Alliance opposite() {
+            return WHITE;
+        }
     };
 
     public abstract int getDirection();
@@ -74,4 +84,5 @@ public enum Alliance {
     public abstract boolean isPawnPromotionSquare(int position);
 
     public abstract Player choosePlayer(WhitePlayer whitePlayer, BlackPlayer blackPlayer);
+    public abstract Alliance opposite();
 }
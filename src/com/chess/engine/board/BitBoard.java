@@ -0,0 +1,246 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.util.Map;
+
+public final class BitBoard {
+
+    public static final int NUM_PIECE_TYPES = 6;
+    public static final int NUM_PIECE_BOARDS = 2 * NUM_PIECE_TYPES;
+    public static final long EMPTY = 0L;
+
+    private static final int[] KING_OFFSETS = {-9, -8, -7, -1, 1, 7, 8, 9};
+    private static final long[][] BETWEEN = initBetween();
+    private static final long[][] LINE = initLine();
+
+    //one long per alliance and piece type, bit i set when tile i holds such a piece
+    private final long[] pieceBoards;
+    private final long whiteOccupancy;
+    private final long blackOccupancy;
+    private final long occupancy;
+
+    private BitBoard(final long[] pieceBoards) {
+        this.pieceBoards = pieceBoards;
+        this.whiteOccupancy = calculateOccupancy(pieceBoards, Alliance.WHITE);
+        this.blackOccupancy = calculateOccupancy(pieceBoards, Alliance.BLACK);
+        this.occupancy = this.whiteOccupancy | this.blackOccupancy;
+    }
+
+    static BitBoard create(final Map<Integer, Piece> boardConfig) {
+        final long[] pieceBoards = new long[NUM_PIECE_BOARDS];
+        for (final Piece piece : boardConfig.values()) {
+            pieceBoards[index(piece.getPieceAlliance(), piece.getPieceType())] |= tileMask(piece.getPiecePosition());
+        }
+        return new BitBoard(pieceBoards);
+    }
+
+    private static long calculateOccupancy(final long[] pieceBoards, final Alliance alliance) {
+        long allianceOccupancy = EMPTY;
+        for (int i = 0; i < NUM_PIECE_TYPES; i++) {
+            allianceOccupancy |= pieceBoards[alliance.ordinal() * NUM_PIECE_TYPES + i];
+        }
+        return allianceOccupancy;
+    }
+
+    public static int index(final Alliance alliance, final PieceType pieceType) {
+        return alliance.ordinal() * NUM_PIECE_TYPES + pieceType.ordinal();
+    }
+
+    public static long tileMask(final int tileCoordinate) {
+        return 1L << tileCoordinate;
+    }
+
+    /**
+     * Returns the tile reached by taking one offset step from the tile, or -1 when the step
+     * leaves the board or wraps around to the other edge.
+     */
+    public static int step(final int tileCoordinate, final int offset) {
+        final int destination = tileCoordinate + offset;
+        if (!BoardUtils.isValidTileCoordinate(destination) ||
+                Math.abs((destination % BoardUtils.NUM_TILES_PER_ROW) - (tileCoordinate % BoardUtils.NUM_TILES_PER_ROW)) > 2) {
+            return -1;
+        }
+        return destination;
+    }
+
+    public static long knightAttacks(final int tileCoordinate) {
+        return BoardUtils.KNIGHT_ATTACKS[tileCoordinate];
+    }
+
+    public static long kingAttacks(final int tileCoordinate) {
+        return BoardUtils.KING_ATTACKS[tileCoordinate];
+    }
+
+    public static long pawnAttacks(final Alliance alliance, final int tileCoordinate) {
+        return BoardUtils.PAWN_ATTACKS[alliance.ordinal()][tileCoordinate];
+    }
+
+    public static long bishopAttacks(final int tileCoordinate, final long occupancy) {
+        return MagicBitBoards.bishopAttacks(tileCoordinate, occupancy);
+    }
+
+    public static long rookAttacks(final int tileCoordinate, final long occupancy) {
+        return MagicBitBoards.rookAttacks(tileCoordinate, occupancy);
+    }
+
+    public static long queenAttacks(final int tileCoordinate, final long occupancy) {
+        return bishopAttacks(tileCoordinate, occupancy) | rookAttacks(tileCoordinate, occupancy);
+    }
+
+    //tiles strictly between two tiles sharing a rank, file or diagonal, empty otherwise
+    public static long between(final int from, final int to) {
+        return BETWEEN[from][to];
+    }
+
+    //the whole rank, file or diagonal through two tiles, empty when they are not aligned
+    public static long line(final int from, final int to) {
+        return LINE[from][to];
+    }
+
+    /**
+     * Returns the pieces of the attacking alliance that attack the tile, sliders being blocked by
+     * the given occupancy. The boards are indexed as {@link #index(Alliance, PieceType)}.
+     */
+    public static long attackersOf(final int tileCoordinate,
+                                   final Alliance attackingAlliance,
+                                   final long[] pieceBoards,
+                                   final long occupancy) {
+        final int offset = attackingAlliance.ordinal() * NUM_PIECE_TYPES;
+        final long queens = pieceBoards[offset + PieceType.QUEEN.ordinal()];
+        return (pawnAttacks(attackingAlliance.opposite(), tileCoordinate) & pieceBoards[offset + PieceType.PAWN.ordinal()]) |
+               (knightAttacks(tileCoordinate) & pieceBoards[offset + PieceType.KNIGHT.ordinal()]) |
+               (kingAttacks(tileCoordinate) & pieceBoards[offset + PieceType.KING.ordinal()]) |
+               (bishopAttacks(tileCoordinate, occupancy) & (pieceBoards[offset + PieceType.BISHOP.ordinal()] | queens)) |
+               (rookAttacks(tileCoordinate, occupancy) & (pieceBoards[offset + PieceType.ROOK.ordinal()] | queens));
+    }
+
+    /**
+     * Returns every tile the alliance attacks, sliders being blocked by the given occupancy.
+     */
+    public static long attackedTiles(final Alliance attackingAlliance,
+                                     final long[] pieceBoards,
+                                     final long occupancy) {
+        final int offset = attackingAlliance.ordinal() * NUM_PIECE_TYPES;
+        long attacks = EMPTY;
+        long pieces = pieceBoards[offset + PieceType.PAWN.ordinal()];
+        while (pieces != EMPTY) {
+            attacks |= pawnAttacks(attackingAlliance, Long.numberOfTrailingZeros(pieces));
+            pieces &= pieces - 1;
+        }
+        pieces = pieceBoards[offset + PieceType.KNIGHT.ordinal()];
+        while (pieces != EMPTY) {
+            attacks |= knightAttacks(Long.numberOfTrailingZeros(pieces));
+            pieces &= pieces - 1;
+        }
+        pieces = pieceBoards[offset + PieceType.BISHOP.ordinal()] | pieceBoards[offset + PieceType.QUEEN.ordinal()];
+        while (pieces != EMPTY) {
+            attacks |= bishopAttacks(Long.numberOfTrailingZeros(pieces), occupancy);
+            pieces &= pieces - 1;
+        }
+        pieces = pieceBoards[offset + PieceType.ROOK.ordinal()] | pieceBoards[offset + PieceType.QUEEN.ordinal()];
+        while (pieces != EMPTY) {
+            attacks |= rookAttacks(Long.numberOfTrailingZeros(pieces), occupancy);
+            pieces &= pieces - 1;
+        }
+        pieces = pieceBoards[offset + PieceType.KING.ordinal()];
+        if (pieces != EMPTY) {
+            attacks |= kingAttacks(Long.numberOfTrailingZeros(pieces));
+        }
+        return attacks;
+    }
+
+    public boolean isSquareAttacked(final int tileCoordinate, final Alliance attackingAlliance) {
+        return attackersOf(tileCoordinate, attackingAlliance, this.pieceBoards, this.occupancy) != EMPTY;
+    }
+
+    public long getAttackedSquares(final Alliance attackingAlliance) {
+        return attackedTiles(attackingAlliance, this.pieceBoards, this.occupancy);
+    }
+
+    public KingSafety calculateKingSafety(final Alliance alliance) {
+        final KingSafety kingSafety = new KingSafety();
+        kingSafety.calculate(this.pieceBoards, this.occupancy, alliance);
+        return kingSafety;
+    }
+
+    private static long[][] initBetween() {
+        final long[][] between = new long[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+        for (int from = 0; from < BoardUtils.NUM_TILES; from++) {
+            for (final int direction : KING_OFFSETS) {
+                long ray = EMPTY;
+                int to = step(from, direction);
+                while (to != -1) {
+                    between[from][to] = ray;
+                    ray |= tileMask(to);
+                    to = step(to, direction);
+                }
+            }
+        }
+        return between;
+    }
+
+    private static long[][] initLine() {
+        final long[][] line = new long[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+        for (int from = 0; from < BoardUtils.NUM_TILES; from++) {
+            for (final int direction : KING_OFFSETS) {
+                final long fullLine = tileMask(from) | ray(from, direction) | ray(from, -direction);
+                int to = step(from, direction);
+                while (to != -1) {
+                    line[from][to] = fullLine;
+                    to = step(to, direction);
+                }
+            }
+        }
+        return line;
+    }
+
+    private static long ray(final int tileCoordinate, final int direction) {
+        long ray = EMPTY;
+        int destination = step(tileCoordinate, direction);
+        while (destination != -1) {
+            ray |= tileMask(destination);
+            destination = step(destination, direction);
+        }
+        return ray;
+    }
+
+    public long getPieces(final Alliance alliance, final PieceType pieceType) {
+        return this.pieceBoards[index(alliance, pieceType)];
+    }
+
+    public long getOccupancy(final Alliance alliance) {
+        return alliance.isWhite() ? this.whiteOccupancy : this.blackOccupancy;
+    }
+
+    public long getOccupancy() {
+        return this.occupancy;
+    }
+
+    public boolean isTileOccupied(final int tileCoordinate) {
+        return (this.occupancy & tileMask(tileCoordinate)) != 0;
+    }
+
+    public boolean isTileOccupied(final int tileCoordinate, final Alliance alliance) {
+        return (getOccupancy(alliance) & tileMask(tileCoordinate)) != 0;
+    }
+
+    public int getKingCoordinate(final Alliance alliance) {
+        final long king = getPieces(alliance, PieceType.KING);
+        return king == EMPTY ? -1 : Long.numberOfTrailingZeros(king);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            builder.append(isTileOccupied(i) ? " x" : " -");
+            if ((i + 1) % BoardUtils.NUM_TILES_PER_ROW == 0) {
+                builder.append("\n");
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -2,6 +2,7 @@ package com.chess.engine.board;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.pieces.*;
+import com.chess.engine.pieces.Piece.PieceType;
 import com.chess.engine.player.BlackPlayer;
 import com.chess.engine.player.Player;
 import com.chess.engine.player.WhitePlayer;
@@ -10,32 +11,42 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public final class Board {
 
     private final List<Tile> gameBoard;
+    private final BitBoard bitBoard;
     private final Collection<Piece> whitePieces;
     private final Collection<Piece> blackPieces;
+    private final Collection<Piece> allPieces;
 
-    private final WhitePlayer whitePlayer;
-    private final BlackPlayer blackPlayer;
-    private final Player currentPlayer;
+    private final Alliance nextMoveMaker;
+    //move lists and players are only built when someone asks, search leaves mostly never do
+    private volatile Collection<Move> whiteStandardLegalMoves;
+    private volatile Collection<Move> blackStandardLegalMoves;
+    private volatile WhitePlayer whitePlayer;
+    private volatile BlackPlayer blackPlayer;
 
     private final Pawn enPassantPawn;
+    private final int castlingRights;
+    private final boolean whiteCastled;
+    private final boolean blackCastled;
+    private final long zobristKey;
 
     private Board(final Builder builder) {
         this.gameBoard = createGameBoard(builder);
-        this.whitePieces = calculateActivePieces(this.gameBoard, Alliance.WHITE);
-        this.blackPieces = calculateActivePieces(this.gameBoard, Alliance.BLACK);
+        this.bitBoard = BitBoard.create(builder.boardConfig);
+        //a move hands over its parent's lists already patched, a board built from scratch scans its tiles
+        this.whitePieces = builder.whitePieces != null ? builder.whitePieces : calculateActivePieces(this.gameBoard, Alliance.WHITE);
+        this.blackPieces = builder.blackPieces != null ? builder.blackPieces : calculateActivePieces(this.gameBoard, Alliance.BLACK);
+        this.allPieces = ImmutableList.<Piece>builder().addAll(this.whitePieces).addAll(this.blackPieces).build();
         this.enPassantPawn = builder.enPassantPawn;
-        final Collection<Move> whiteStandardLegalMoves = calculateLegalMoves(this.whitePieces);
-        final Collection<Move> blackStandardLegalMoves = calculateLegalMoves(this.blackPieces);
-
-        this.whitePlayer = new WhitePlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-        this.blackPlayer = new BlackPlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-        this.currentPlayer = builder.nextMoveMaker.choosePlayer(this.whitePlayer, this.blackPlayer);
+        this.castlingRights = calculateCastlingRights(this.gameBoard);
+        this.whiteCastled = builder.whiteCastled;
+        this.blackCastled = builder.blackCastled;
+        this.zobristKey = builder.zobristKey != null ? builder.zobristKey :
+                Zobrist.calculateKey(builder.boardConfig.values(), builder.nextMoveMaker, this.castlingRights, this.enPassantPawn);
+        this.nextMoveMaker = builder.nextMoveMaker;
     }
 
     @Override
@@ -51,22 +62,79 @@ public final class Board {
         return builder.toString();
     }
     public Player whitePlayer() {
-        return this.whitePlayer;
+        WhitePlayer player = this.whitePlayer;
+        if (player == null) {
+            player = new WhitePlayer(this);
+            this.whitePlayer = player;
+        }
+        return player;
     }
     public Player blackPlayer() {
-        return this.blackPlayer;
+        BlackPlayer player = this.blackPlayer;
+        if (player == null) {
+            player = new BlackPlayer(this);
+            this.blackPlayer = player;
+        }
+        return player;
     }
     public Player currentPlayer() {
-        return this.currentPlayer;
+        return this.nextMoveMaker.isWhite() ? whitePlayer() : blackPlayer();
+    }
+
+    public Collection<Move> getStandardLegalMoves(final Alliance alliance) {
+        if (alliance.isWhite()) {
+            Collection<Move> moves = this.whiteStandardLegalMoves;
+            if (moves == null) {
+                moves = calculateLegalMoves(this.whitePieces);
+                this.whiteStandardLegalMoves = moves;
+            }
+            return moves;
+        }
+        Collection<Move> moves = this.blackStandardLegalMoves;
+        if (moves == null) {
+            moves = calculateLegalMoves(this.blackPieces);
+            this.blackStandardLegalMoves = moves;
+        }
+        return moves;
     }
     public Piece getPiece(final int coordinate) {
         return this.gameBoard.get(coordinate).getPiece();
     }
 
+    public BitBoard getBitBoard() {
+        return this.bitBoard;
+    }
+
+    /**
+     * Tells whether any piece of the attacking alliance attacks the tile, worked out from the
+     * piece positions alone without generating moves.
+     */
+    public boolean isSquareAttacked(final int coordinate, final Alliance attackingAlliance) {
+        return this.bitBoard.isSquareAttacked(coordinate, attackingAlliance);
+    }
+
+    //every tile the alliance attacks, bit i set for tile i
+    public long getAttackedSquares(final Alliance attackingAlliance) {
+        return this.bitBoard.getAttackedSquares(attackingAlliance);
+    }
+
     public Pawn getEnPassantPawn() {
         return this.enPassantPawn;
     }
 
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    //unlike the castling rights this cannot be read off the pieces, every move carries it over
+    public boolean isCastled(final Alliance alliance) {
+        return alliance.isWhite() ? this.whiteCastled : this.blackCastled;
+    }
+
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
     public Collection<Piece> getBlackPieces() {
         return this.blackPieces;
     }
@@ -76,11 +144,11 @@ public final class Board {
 
     private Collection<Move> calculateLegalMoves(final Collection<Piece> pieces) {
 
-        final List<Move> legalMoves = new ArrayList<>();
+        final ImmutableList.Builder<Move> legalMoves = ImmutableList.builder();
         for (final Piece piece: pieces) {
             legalMoves.addAll(piece.calculateLegalMoves(this));
         }
-        return ImmutableList.copyOf(legalMoves);
+        return legalMoves.build();
     }
 
     private static Collection<Piece> calculateActivePieces(final List<Tile> gameBoard, final Alliance alliance) {
@@ -96,6 +164,28 @@ public final class Board {
         return ImmutableList.copyOf(activePieces);
     }
 
+    private static int calculateCastlingRights(final List<Tile> gameBoard) {
+        int rights = 0;
+        if (isUnmoved(gameBoard, 60, Alliance.WHITE, PieceType.KING)) {
+            rights |= isUnmoved(gameBoard, 63, Alliance.WHITE, PieceType.ROOK) ? BoardUtils.WHITE_KING_SIDE_CASTLE : 0;
+            rights |= isUnmoved(gameBoard, 56, Alliance.WHITE, PieceType.ROOK) ? BoardUtils.WHITE_QUEEN_SIDE_CASTLE : 0;
+        }
+        if (isUnmoved(gameBoard, 4, Alliance.BLACK, PieceType.KING)) {
+            rights |= isUnmoved(gameBoard, 7, Alliance.BLACK, PieceType.ROOK) ? BoardUtils.BLACK_KING_SIDE_CASTLE : 0;
+            rights |= isUnmoved(gameBoard, 0, Alliance.BLACK, PieceType.ROOK) ? BoardUtils.BLACK_QUEEN_SIDE_CASTLE : 0;
+        }
+        return rights;
+    }
+
+    private static boolean isUnmoved(final List<Tile> gameBoard,
+                                     final int coordinate,
+                                     final Alliance alliance,
+                                     final PieceType pieceType) {
+        final Piece piece = gameBoard.get(coordinate).getPiece();
+        return piece != null && piece.isFirstMove() &&
+                piece.getPieceAlliance() == alliance && piece.getPieceType() == pieceType;
+    }
+
     public Tile getTile(final int tileCoordinate) {
         return gameBoard.get(tileCoordinate);
     }
@@ -111,57 +201,61 @@ public final class Board {
     public static Board createStandardBoard() {
         final Builder builder = new Builder();
         //black layout
-        builder.setPiece(new Rook(Alliance.BLACK, 0));
-        builder.setPiece(new Knight(Alliance.BLACK, 1));
-        builder.setPiece(new Bishop(Alliance.BLACK, 2));
-        builder.setPiece(new Queen(Alliance.BLACK, 3));
-        builder.setPiece(new King(Alliance.BLACK, 4));
-        builder.setPiece(new Bishop(Alliance.BLACK, 5));
-        builder.setPiece(new Knight(Alliance.BLACK, 6));
-        builder.setPiece(new Rook(Alliance.BLACK, 7));
-        builder.setPiece(new Pawn(Alliance.BLACK, 8));
-        builder.setPiece(new Pawn(Alliance.BLACK, 9));
-        builder.setPiece(new Pawn(Alliance.BLACK, 10));
-        builder.setPiece(new Pawn(Alliance.BLACK, 11));
-        builder.setPiece(new Pawn(Alliance.BLACK, 12));
-        builder.setPiece(new Pawn(Alliance.BLACK, 13));
-        builder.setPiece(new Pawn(Alliance.BLACK, 14));
-        builder.setPiece(new Pawn(Alliance.BLACK, 15));
+        builder.setPiece(PieceUtils.getRook(Alliance.BLACK, 0, true));
+        builder.setPiece(PieceUtils.getKnight(Alliance.BLACK, 1, true));
+        builder.setPiece(PieceUtils.getBishop(Alliance.BLACK, 2, true));
+        builder.setPiece(PieceUtils.getQueen(Alliance.BLACK, 3, true));
+        builder.setPiece(PieceUtils.getKing(Alliance.BLACK, 4, true));
+        builder.setPiece(PieceUtils.getBishop(Alliance.BLACK, 5, true));
+        builder.setPiece(PieceUtils.getKnight(Alliance.BLACK, 6, true));
+        builder.setPiece(PieceUtils.getRook(Alliance.BLACK, 7, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 8, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 9, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 10, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 11, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 12, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 13, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 14, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 15, true));
         //white layout
-        builder.setPiece(new Pawn(Alliance.WHITE, 48));
-        builder.setPiece(new Pawn(Alliance.WHITE, 49));
-        builder.setPiece(new Pawn(Alliance.WHITE, 50));
-        builder.setPiece(new Pawn(Alliance.WHITE, 51));
-        builder.setPiece(new Pawn(Alliance.WHITE, 52));
-        builder.setPiece(new Pawn(Alliance.WHITE, 53));
-        builder.setPiece(new Pawn(Alliance.WHITE, 54));
-        builder.setPiece(new Pawn(Alliance.WHITE, 55));
-        builder.setPiece(new Rook(Alliance.WHITE, 56));
-        builder.setPiece(new Knight(Alliance.WHITE, 57));
-        builder.setPiece(new Bishop(Alliance.WHITE, 58));
-        builder.setPiece(new Queen(Alliance.WHITE, 59));
-        builder.setPiece(new King(Alliance.WHITE, 60));
-        builder.setPiece(new Bishop(Alliance.WHITE, 61));
-        builder.setPiece(new Knight(Alliance.WHITE, 62));
-        builder.setPiece(new Rook(Alliance.WHITE, 63));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 48, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 49, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 50, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 51, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 52, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 53, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 54, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 55, true));
+        builder.setPiece(PieceUtils.getRook(Alliance.WHITE, 56, true));
+        builder.setPiece(PieceUtils.getKnight(Alliance.WHITE, 57, true));
+        builder.setPiece(PieceUtils.getBishop(Alliance.WHITE, 58, true));
+        builder.setPiece(PieceUtils.getQueen(Alliance.WHITE, 59, true));
+        builder.setPiece(PieceUtils.getKing(Alliance.WHITE, 60, true));
+        builder.setPiece(PieceUtils.getBishop(Alliance.WHITE, 61, true));
+        builder.setPiece(PieceUtils.getKnight(Alliance.WHITE, 62, true));
+        builder.setPiece(PieceUtils.getRook(Alliance.WHITE, 63, true));
         //white to move
         builder.setMoveMaker(Alliance.WHITE);
         return builder.build();
     }
 
     public Iterable<Move> getAllLegalMoves() {
-        return Iterables.unmodifiableIterable(Iterables.concat(this.whitePlayer.getLegalMoves(), this.blackPlayer.getLegalMoves()));
+        return Iterables.unmodifiableIterable(Iterables.concat(whitePlayer().getLegalMoves(), blackPlayer().getLegalMoves()));
     }
 
     public Collection<Piece> getAllPieces() {
-        return Stream.concat(this.whitePieces.stream(),
-                this.blackPieces.stream()).collect(Collectors.toList());
+        return this.allPieces;
     }
 
     public static class Builder {
         Map<Integer, Piece> boardConfig;
         Alliance nextMoveMaker;
         Pawn enPassantPawn;
+        Long zobristKey;
+        Collection<Piece> whitePieces;
+        Collection<Piece> blackPieces;
+        boolean whiteCastled;
+        boolean blackCastled;
 
         public Builder() {
             this.boardConfig = new HashMap<>();
@@ -170,6 +264,38 @@ public final class Board {
             this.boardConfig.put(piece.getPiecePosition(), piece);
             return this;
         }
+
+        /**
+         * Places every piece of one alliance and keeps the collection as that alliance's piece
+         * list, so the board does not have to rescan its tiles for it. The collection must hold
+         * all of the alliance's pieces and no other piece of that alliance may be set.
+         */
+        public Builder setActivePieces(final Alliance alliance, final Collection<Piece> pieces) {
+            for (final Piece piece : pieces) {
+                setPiece(piece);
+            }
+            if (alliance.isWhite()) {
+                this.whitePieces = pieces;
+            } else {
+                this.blackPieces = pieces;
+            }
+            return this;
+        }
+        public Builder setCastled(final Alliance alliance, final boolean castled) {
+            if (alliance.isWhite()) {
+                this.whiteCastled = castled;
+            } else {
+                this.blackCastled = castled;
+            }
+            return this;
+        }
+
+        //which sides have castled on the board a move is played on
+        public Builder setCastled(final Board board) {
+            this.whiteCastled = board.whiteCastled;
+            this.blackCastled = board.blackCastled;
+            return this;
+        }
         public Builder setMoveMaker(final Alliance nextMoveMaker) {
             this.nextMoveMaker = nextMoveMaker;
             return this;
@@ -181,5 +307,11 @@ public final class Board {
         public void setEnPassantPawn(Pawn enPassantPawn) {
             this.enPassantPawn = enPassantPawn;
         }
+
+        //lets a move hand over the key it derived from its parent instead of rehashing every piece
+        public Builder setZobristKey(final long zobristKey) {
+            this.zobristKey = zobristKey;
+            return this;
+        }
     }
 }
\ No newline at end of file
@@ -29,6 +29,22 @@ public enum BoardUtils {
 
     public static final int START_TILE_INDEX = 0;
 
+    public static final int WHITE_KING_SIDE_CASTLE = 1;
+    public static final int WHITE_QUEEN_SIDE_CASTLE = 2;
+    public static final int BLACK_KING_SIDE_CASTLE = 4;
+    public static final int BLACK_QUEEN_SIDE_CASTLE = 8;
+    public static final int ALL_CASTLING_RIGHTS = 15;
+    //castling rights that survive a move touching the tile, on either its source or its destination
+    public static final int[] CASTLING_RIGHTS_MASK = initCastlingRightsMask();
+
+    //tiles a leaper on the tile attacks, bit i set for tile i; pawns are indexed by alliance ordinal first
+    public static final long[] KNIGHT_ATTACKS = initLeaperAttacks(new int[] {-17, -15, -10, -6, 6, 10, 15, 17});
+    public static final long[] KING_ATTACKS = initLeaperAttacks(new int[] {-9, -8, -7, -1, 1, 7, 8, 9});
+    public static final long[][] PAWN_ATTACKS = {
+            initLeaperAttacks(new int[] {-9, -7}),
+            initLeaperAttacks(new int[] {7, 9})
+    };
+
     private static List<String> initializeAlgebraicNotation() {
         return Collections.unmodifiableList(Arrays.asList(
                 "a8", "b8", "c8", "d8", "e8", "f8", "g8", "h8",
@@ -48,6 +64,33 @@ public enum BoardUtils {
         return Collections.unmodifiableMap(positionToCoordinate);
     }
 
+    private static int[] initCastlingRightsMask() {
+        final int[] mask = new int[NUM_TILES];
+        Arrays.fill(mask, ALL_CASTLING_RIGHTS);
+        mask[60] &= ~(WHITE_KING_SIDE_CASTLE | WHITE_QUEEN_SIDE_CASTLE);
+        mask[63] &= ~WHITE_KING_SIDE_CASTLE;
+        mask[56] &= ~WHITE_QUEEN_SIDE_CASTLE;
+        mask[4] &= ~(BLACK_KING_SIDE_CASTLE | BLACK_QUEEN_SIDE_CASTLE);
+        mask[7] &= ~BLACK_KING_SIDE_CASTLE;
+        mask[0] &= ~BLACK_QUEEN_SIDE_CASTLE;
+        return mask;
+    }
+
+    //an offset is kept only when it lands on the board without wrapping round to the other edge
+    private static long[] initLeaperAttacks(final int[] offsets) {
+        final long[] attacks = new long[NUM_TILES];
+        for (int tile = START_TILE_INDEX; tile < NUM_TILES; tile++) {
+            for (final int offset : offsets) {
+                final int destination = tile + offset;
+                if (isValidTileCoordinate(destination) &&
+                        Math.abs(destination % NUM_TILES_PER_ROW - tile % NUM_TILES_PER_ROW) <= 2) {
+                    attacks[tile] |= 1L << destination;
+                }
+            }
+        }
+        return attacks;
+    }
+
     private static boolean[] initColumn(int columnNumber) {
         final boolean[] column = new boolean[NUM_TILES];
         do {
@@ -0,0 +1,133 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * Everything needed to tell whether a pseudo-legal move leaves its own king attacked, worked out
+ * once per position from the bitboards: the pieces giving check, the tiles a single check can be
+ * answered on, the pinned pieces and the tiles the king must not step onto. With it a move can be
+ * accepted or rejected without playing it.
+ */
+public final class KingSafety {
+
+    private long[] pieceBoards;
+    private long occupancy;
+    private Alliance alliance;
+    private int kingCoordinate;
+    private long checkers;
+    private long checkBlockers;
+    private long pinned;
+    private long kingDanger;
+
+    public void calculate(final long[] pieceBoards, final long occupancy, final Alliance alliance) {
+        this.pieceBoards = pieceBoards;
+        this.occupancy = occupancy;
+        this.alliance = alliance;
+        final long king = pieceBoards[BitBoard.index(alliance, PieceType.KING)];
+        this.kingCoordinate = Long.numberOfTrailingZeros(king);
+        if (king == BitBoard.EMPTY) {
+            this.checkers = this.checkBlockers = this.pinned = this.kingDanger = BitBoard.EMPTY;
+            return;
+        }
+        final Alliance opponent = alliance.opposite();
+        this.checkers = BitBoard.attackersOf(this.kingCoordinate, opponent, pieceBoards, occupancy);
+        this.checkBlockers = Long.bitCount(this.checkers) == 1 ?
+                this.checkers | BitBoard.between(this.kingCoordinate, Long.numberOfTrailingZeros(this.checkers)) :
+                BitBoard.EMPTY;
+        //the king is lifted off the board, so it cannot hide from a slider on the checking line
+        this.kingDanger = BitBoard.attackedTiles(opponent, pieceBoards, occupancy & ~king);
+        this.pinned = calculatePinned(opponent);
+    }
+
+    private long calculatePinned(final Alliance opponent) {
+        final long opponentPieces = opponentOccupancy(opponent);
+        final long queens = this.pieceBoards[BitBoard.index(opponent, PieceType.QUEEN)];
+        long snipers = (BitBoard.rookAttacks(this.kingCoordinate, opponentPieces) &
+                (this.pieceBoards[BitBoard.index(opponent, PieceType.ROOK)] | queens)) |
+                (BitBoard.bishopAttacks(this.kingCoordinate, opponentPieces) &
+                (this.pieceBoards[BitBoard.index(opponent, PieceType.BISHOP)] | queens));
+        long pinnedPieces = BitBoard.EMPTY;
+        while (snipers != BitBoard.EMPTY) {
+            final long blockers = BitBoard.between(this.kingCoordinate, Long.numberOfTrailingZeros(snipers)) & this.occupancy;
+            if (Long.bitCount(blockers) == 1) {
+                pinnedPieces |= blockers & ~opponentPieces;
+            }
+            snipers &= snipers - 1;
+        }
+        return pinnedPieces;
+    }
+
+    private long opponentOccupancy(final Alliance opponent) {
+        long opponentPieces = BitBoard.EMPTY;
+        for (int i = 0; i < BitBoard.NUM_PIECE_TYPES; i++) {
+            opponentPieces |= this.pieceBoards[opponent.ordinal() * BitBoard.NUM_PIECE_TYPES + i];
+        }
+        return opponentPieces;
+    }
+
+    public boolean isInCheck() {
+        return this.checkers != BitBoard.EMPTY;
+    }
+
+    public long getCheckers() {
+        return this.checkers;
+    }
+
+    public long getPinned() {
+        return this.pinned;
+    }
+
+    public long getKingDanger() {
+        return this.kingDanger;
+    }
+
+    public int getKingCoordinate() {
+        return this.kingCoordinate;
+    }
+
+    /**
+     * Tells whether moving the piece on the source tile to the destination keeps the king safe.
+     * Castling is checked separately by {@link #isLegalCastle(int)}.
+     */
+    public boolean isLegal(final int source, final int destination, final boolean isEnPassant) {
+        final long destinationMask = BitBoard.tileMask(destination);
+        if (source == this.kingCoordinate) {
+            return (this.kingDanger & destinationMask) == 0;
+        }
+        if (isEnPassant) {
+            return isLegalEnPassant(source, destination);
+        }
+        if (this.checkers != BitBoard.EMPTY && (this.checkBlockers & destinationMask) == 0) {
+            return false;
+        }
+        return (this.pinned & BitBoard.tileMask(source)) == 0 ||
+                (BitBoard.line(this.kingCoordinate, source) & destinationMask) != 0;
+    }
+
+    //the king may not castle out of, through or into an attacked tile
+    public boolean isLegalCastle(final int destination) {
+        if (isInCheck()) {
+            return false;
+        }
+        final int passedTile = (this.kingCoordinate + destination) / 2;
+        return ((BitBoard.tileMask(passedTile) | BitBoard.tileMask(destination)) & this.kingDanger) == 0;
+    }
+
+    //both pawns leave their tiles at once, so the position after the capture is tested directly
+    private boolean isLegalEnPassant(final int source, final int destination) {
+        final Alliance opponent = this.alliance.opposite();
+        final int capturedPawn = destination - (this.alliance.getDirection() * BoardUtils.NUM_TILES_PER_ROW);
+        final long occupancyAfter = (this.occupancy & ~BitBoard.tileMask(source) & ~BitBoard.tileMask(capturedPawn)) |
+                BitBoard.tileMask(destination);
+        final long queens = this.pieceBoards[BitBoard.index(opponent, PieceType.QUEEN)];
+        return ((BitBoard.rookAttacks(this.kingCoordinate, occupancyAfter) &
+                (this.pieceBoards[BitBoard.index(opponent, PieceType.ROOK)] | queens)) |
+                (BitBoard.bishopAttacks(this.kingCoordinate, occupancyAfter) &
+                (this.pieceBoards[BitBoard.index(opponent, PieceType.BISHOP)] | queens)) |
+                (BitBoard.knightAttacks(this.kingCoordinate) &
+                this.pieceBoards[BitBoard.index(opponent, PieceType.KNIGHT)]) |
+                (BitBoard.pawnAttacks(this.alliance, this.kingCoordinate) &
+                this.pieceBoards[BitBoard.index(opponent, PieceType.PAWN)] & ~BitBoard.tileMask(capturedPawn))) == 0;
+    }
+}
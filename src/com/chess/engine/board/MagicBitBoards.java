@@ -0,0 +1,140 @@
+package com.chess.engine.board;
+
+/**
+ * Precomputed sliding attacks. For every tile the blockers that matter to a rook or bishop are
+ * masked out of the occupancy, multiplied by a magic number and shifted down to an index into
+ * that tile's attack table, so a slider's attack set costs a multiply and a lookup instead of
+ * walking the rays tile by tile.
+ */
+public enum MagicBitBoards {
+    INSTANCE;
+
+    private static final int[] BISHOP_DIRECTIONS = {-9, -7, 7, 9};
+    private static final int[] ROOK_DIRECTIONS = {-8, -1, 1, 8};
+
+    //found once by a random search over sparse numbers for this tile numbering (a8 = 0, h1 = 63)
+    private static final long[] BISHOP_MAGICS = {
+            0x602101010A0C0041L, 0x0005014C04088000L, 0x0042008101008020L, 0x0004404082185000L,
+            0x00108820042020A1L, 0x0021110840102000L, 0x6102010120100014L, 0x0000420061084000L,
+            0xA002200810008090L, 0x0800100481040228L, 0x0120840400820468L, 0x0002020A02000001L,
+            0x0088020210000810L, 0x8008009004A001C0L, 0x0041570090101A00L, 0x0101010400A20801L,
+            0x0004402089621800L, 0x002021308C208A94L, 0x1A020CB004024008L, 0x8020448401002002L,
+            0x0001014811400101L, 0x0000804808040210L, 0x0104030201048280L, 0x0100408104020140L,
+            0x0009202048200100L, 0x2802103021840080L, 0x1402281810004044L, 0x100900400C040002L,
+            0x4020090002004200L, 0x0808802202021000L, 0x000104001220AC00L, 0x0002220030250701L,
+            0x800884040910A008L, 0x300090112C040400L, 0x0804002402822400L, 0x0040020080080080L,
+            0x0A21080200102200L, 0x4020240102002080L, 0x40A264A100141400L, 0x1001010202011045L,
+            0x8001100904042018L, 0x2800808490002000L, 0x2419040202000100L, 0x000C420202000420L,
+            0x0008280104000040L, 0x0021010709010200L, 0x0120022401002040L, 0x8001110200840201L,
+            0x0200884410041000L, 0x0800443084100100L, 0x0002410088040000L, 0x1000000B05980204L,
+            0x0A10802004240000L, 0x000A050850090000L, 0x0208210104010001L, 0x09600401220420A0L,
+            0x1881210800902840L, 0x880406048A089200L, 0x0040010204844400L, 0x0000100288420200L,
+            0x0000000020024422L, 0x080200400408E880L, 0x0100120222080A02L, 0x8020014208004384L
+    };
+    private static final long[] ROOK_MAGICS = {
+            0x8080104004618000L, 0x0040004020001000L, 0x4680088010002002L, 0x9080080004801000L,
+            0x8200108200088420L, 0x0580040042008001L, 0x82002E8200080104L, 0x8600004091002402L,
+            0x4100802080004008L, 0x0000400020100040L, 0x0208801004200080L, 0x400A002012000940L,
+            0xEBB1000801000410L, 0x0022001008040200L, 0x2403000A00090004L, 0x2020800100104880L,
+            0x3004888000400024L, 0x0000808040002006L, 0x0248110020050044L, 0x0000808010000802L,
+            0x0000818004010800L, 0x0809010008020400L, 0x0061808002000100L, 0x0002020001289044L,
+            0x0000400080008020L, 0x0000500040002000L, 0x0000820200204012L, 0x8008090100201004L,
+            0x0040110100080005L, 0x1000020080800400L, 0x400100090022000CL, 0x2024802080104900L,
+            0x82004004838000A1L, 0x0090002000404001L, 0x4200801000802002L, 0x00080A0022001240L,
+            0x0001000801001006L, 0x0000020080800400L, 0x0000881004000201L, 0x0010450092000444L,
+            0x0180002000404004L, 0x0500201000404000L, 0x0440200041010015L, 0x0212004008220010L,
+            0x1090080004008080L, 0x0044000200808004L, 0x0004281982040010L, 0x4000210040820004L,
+            0x00018000C0006180L, 0x0000200080400080L, 0x0020001100204100L, 0x0020081004210100L,
+            0x5000800800040080L, 0x0002000204008080L, 0x0200025001280400L, 0x0000004104008200L,
+            0x2280281145008001L, 0x0800400301388021L, 0x008D082001001045L, 0x4021210004100009L,
+            0x402200100448606AL, 0x00E2000110088402L, 0x0000100208213084L, 0x0C08040840208102L
+    };
+
+    private static final long[] BISHOP_MASKS = new long[BoardUtils.NUM_TILES];
+    private static final int[] BISHOP_SHIFTS = new int[BoardUtils.NUM_TILES];
+    private static final long[][] BISHOP_ATTACKS = initAttacks(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS);
+
+    private static final long[] ROOK_MASKS = new long[BoardUtils.NUM_TILES];
+    private static final int[] ROOK_SHIFTS = new int[BoardUtils.NUM_TILES];
+    private static final long[][] ROOK_ATTACKS = initAttacks(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS);
+
+    public static long bishopAttacks(final int tileCoordinate, final long occupancy) {
+        return BISHOP_ATTACKS[tileCoordinate][(int) (((occupancy & BISHOP_MASKS[tileCoordinate]) *
+                BISHOP_MAGICS[tileCoordinate]) >>> BISHOP_SHIFTS[tileCoordinate])];
+    }
+
+    public static long rookAttacks(final int tileCoordinate, final long occupancy) {
+        return ROOK_ATTACKS[tileCoordinate][(int) (((occupancy & ROOK_MASKS[tileCoordinate]) *
+                ROOK_MAGICS[tileCoordinate]) >>> ROOK_SHIFTS[tileCoordinate])];
+    }
+
+    private static long[][] initAttacks(final int[] directions,
+                                        final long[] masks,
+                                        final long[] magics,
+                                        final int[] shifts) {
+        final long[][] attacks = new long[BoardUtils.NUM_TILES][];
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            masks[tile] = relevantOccupancy(tile, directions);
+            final int bits = Long.bitCount(masks[tile]);
+            shifts[tile] = Long.SIZE - bits;
+            //every subset of the mask, walked with the carry-rippler trick, with its real attack set
+            final long[] subsets = new long[1 << bits];
+            final long[] subsetAttacks = new long[1 << bits];
+            long subset = BitBoard.EMPTY;
+            for (int i = 0; i < subsets.length; i++) {
+                subsets[i] = subset;
+                subsetAttacks[i] = slidingAttacks(tile, subset, directions);
+                subset = (subset - masks[tile]) & masks[tile];
+            }
+            attacks[tile] = new long[1 << bits];
+            fillTable(tile, magics[tile], subsets, subsetAttacks, shifts[tile], attacks[tile]);
+        }
+        return attacks;
+    }
+
+    //two subsets may share a slot only when they leave the slider the same attacks
+    private static void fillTable(final int tile,
+                                  final long magic,
+                                  final long[] subsets,
+                                  final long[] subsetAttacks,
+                                  final int shift,
+                                  final long[] table) {
+        final boolean[] used = new boolean[table.length];
+        for (int i = 0; i < subsets.length; i++) {
+            final int index = (int) ((subsets[i] * magic) >>> shift);
+            if (used[index] && table[index] != subsetAttacks[i]) {
+                throw new IllegalStateException("Bad magic number for tile " + tile);
+            }
+            used[index] = true;
+            table[index] = subsetAttacks[i];
+        }
+    }
+
+    //the rays without their last tile, since a piece on the edge blocks nothing further
+    private static long relevantOccupancy(final int tileCoordinate, final int[] directions) {
+        long mask = BitBoard.EMPTY;
+        for (final int direction : directions) {
+            int destination = BitBoard.step(tileCoordinate, direction);
+            while (destination != -1 && BitBoard.step(destination, direction) != -1) {
+                mask |= BitBoard.tileMask(destination);
+                destination = BitBoard.step(destination, direction);
+            }
+        }
+        return mask;
+    }
+
+    private static long slidingAttacks(final int tileCoordinate, final long occupancy, final int[] directions) {
+        long attacks = BitBoard.EMPTY;
+        for (final int direction : directions) {
+            int destination = BitBoard.step(tileCoordinate, direction);
+            while (destination != -1) {
+                attacks |= BitBoard.tileMask(destination);
+                if ((occupancy & BitBoard.tileMask(destination)) != 0) {
+                    break;
+                }
+                destination = BitBoard.step(destination, direction);
+            }
+        }
+        return attacks;
+    }
+}
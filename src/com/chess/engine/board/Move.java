@@ -1,8 +1,16 @@
 package com.chess.engine.board;
 
+import com.chess.engine.Alliance;
 import com.chess.engine.pieces.Pawn;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.pieces.PieceUtils;
 import com.chess.engine.pieces.Rook;
+import com.chess.engine.player.Player;
+import com.google.common.collect.ImmutableList;
+
+import java.util.Collection;
+import java.util.List;
 
 import static com.chess.engine.board.Board.*;
 
@@ -75,22 +83,65 @@ public abstract class Move {
 
     public Board execute() {
         final Builder builder = new Builder();
-        for (final Piece piece: this.board.currentPlayer().getActivePieces()) {
-            if (!this.movedPiece.equals(piece)) {
-                builder.setPiece(piece);
-            }
-        }
-        for (final Piece piece:this.board.currentPlayer().getOpponent().getActivePieces()) {
-            builder.setPiece(piece);
-        }
-        //move the moved piece!
-        builder.setPiece(this.movedPiece.movePiece(this));
+        setPatchedPieces(builder, this.movedPiece.movePiece(this));
+        builder.setCastled(this.board);
         builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+        builder.setZobristKey(calculateZobristKey());
         return builder.build();
     }
+
+    /**
+     * Hands the builder both piece lists of the board this move is played on, patched instead of
+     * rescanned: the moved piece is swapped for its moved copy and a captured piece is dropped.
+     */
+    protected void setPatchedPieces(final Builder builder, final Piece movedPiece) {
+        final Player currentPlayer = this.board.currentPlayer();
+        final Collection<Piece> opponentPieces = currentPlayer.getOpponent().getActivePieces();
+        builder.setActivePieces(currentPlayer.getAlliance(),
+                replacePiece(currentPlayer.getActivePieces(), this.movedPiece, movedPiece));
+        builder.setActivePieces(currentPlayer.getOpponent().getAlliance(),
+                isAttack() ? replacePiece(opponentPieces, getAttackedPiece(), null) : opponentPieces);
+    }
+
+    //a copy of the list with one piece swapped for another in its place, or left out when the replacement is null
+    static Collection<Piece> replacePiece(final Collection<Piece> pieces, final Piece oldPiece, final Piece newPiece) {
+        final ImmutableList.Builder<Piece> patchedPieces = ImmutableList.builder();
+        for (final Piece piece : pieces) {
+            if (piece != oldPiece) {
+                patchedPieces.add(piece);
+            } else if (newPiece != null) {
+                patchedPieces.add(newPiece);
+            }
+        }
+        return patchedPieces.build();
+    }
+
+    /**
+     * Derives the key of the board this move leads to from the key of the board it is played on:
+     * the side to move flips, the moved piece leaves its tile for the destination, a captured
+     * piece disappears, and the old castling rights and en passant pawn are swapped out.
+     */
+    protected long calculateZobristKey() {
+        final int castlingRights = this.board.getCastlingRights() &
+                BoardUtils.CASTLING_RIGHTS_MASK[getCurrentCoordinate()] &
+                BoardUtils.CASTLING_RIGHTS_MASK[this.destinationCoordinate];
+        long key = this.board.getZobristKey() ^ Zobrist.sideToMoveKey() ^
+                Zobrist.castlingKey(this.board.getCastlingRights()) ^ Zobrist.castlingKey(castlingRights) ^
+                Zobrist.pieceKey(this.movedPiece, getCurrentCoordinate()) ^
+                Zobrist.pieceKey(this.movedPiece, this.destinationCoordinate);
+        if (this.board.getEnPassantPawn() != null) {
+            key ^= Zobrist.enPassantKey(this.board.getEnPassantPawn().getPiecePosition());
+        }
+        if (isAttack()) {
+            key ^= Zobrist.pieceKey(getAttackedPiece(), getAttackedPiece().getPiecePosition());
+        }
+        return key;
+    }
     public Board undo() {
         final Board.Builder builder = new Builder();
-        this.board.getAllPieces().forEach(builder::setPiece);
+        builder.setActivePieces(Alliance.WHITE, this.board.getWhitePieces());
+        builder.setActivePieces(Alliance.BLACK, this.board.getBlackPieces());
+        builder.setCastled(this.board);
         builder.setMoveMaker(this.board.currentPlayer().getAlliance());
         return builder.build();
     }
@@ -193,56 +244,49 @@ public abstract class Move {
         public boolean equals(final Object other) {
             return this == other || other instanceof PawnEnPassantAttackMove && super.equals(other);
         }
-        @Override
-        public Board execute() {
-            final Builder builder = new Builder();
-            for (final Piece piece:this.board.currentPlayer().getActivePieces()) {
-                if (!this.movedPiece.equals(piece)) {
-                    builder.setPiece(piece);
-                }
-            }
-            for (final Piece piece:this.board.currentPlayer().getOpponent().getActivePieces()) {
-                if (!piece.equals(this.getAttackedPiece())) {
-                    builder.setPiece(piece);
-                }
-            }
-            builder.setPiece(this.movedPiece.movePiece(this));
-            builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
-            return builder.build();
-        }
     }
     public static class PawnPromotion extends Move {
 
         final Move decoratedMove;
         final Pawn promotedPawn;
+        final PieceType promotionType;
 
         public PawnPromotion(final Move decoratedMove) {
+            this(decoratedMove, PieceType.QUEEN);
+        }
+        public PawnPromotion(final Move decoratedMove, final PieceType promotionType) {
             super(decoratedMove.getBoard(), decoratedMove.getMovedPiece(), decoratedMove.getDestinationCoordinate());
             this.decoratedMove = decoratedMove;
             this.promotedPawn = (Pawn)decoratedMove.getMovedPiece();
+            this.promotionType = promotionType;
         }
         @Override
         public int hashCode() {
-            return decoratedMove.hashCode() + (31 * promotedPawn.hashCode());
+            return decoratedMove.hashCode() + (31 * promotedPawn.hashCode()) + promotionType.hashCode();
         }
         @Override
         public boolean equals(final Object other) {
-            return this == other || other instanceof PawnPromotion && (super.equals(other));
+            return this == other || other instanceof PawnPromotion && (super.equals(other)) &&
+                    this.promotionType == ((PawnPromotion) other).getPromotionType();
+        }
+        public PieceType getPromotionType() {
+            return this.promotionType;
         }
         @Override
         public Board execute() {
             final Board pawnMovedBoard = this.decoratedMove.execute();
             final Board.Builder builder = new Builder();
-            for (final Piece piece : pawnMovedBoard.currentPlayer().getActivePieces()) {
-                if (!this.promotedPawn.equals(piece)) {
-                    builder.setPiece(piece);
-                }
-            }
-            for (final Piece piece : pawnMovedBoard.currentPlayer().getOpponent().getActivePieces()) {
-                builder.setPiece(piece);
-            }
-            builder.setPiece(this.promotedPawn.getPromotionPiece().movePiece(this));
+            final Player promotingPlayer = pawnMovedBoard.currentPlayer().getOpponent();
+            final Piece promotionPiece = this.promotedPawn.getPromotionPiece(this.promotionType).movePiece(this);
+            builder.setActivePieces(promotingPlayer.getAlliance(), replacePiece(promotingPlayer.getActivePieces(),
+                    pawnMovedBoard.getPiece(this.destinationCoordinate), promotionPiece));
+            builder.setActivePieces(pawnMovedBoard.currentPlayer().getAlliance(),
+                    pawnMovedBoard.currentPlayer().getActivePieces());
+            builder.setCastled(pawnMovedBoard);
             builder.setMoveMaker(pawnMovedBoard.currentPlayer().getAlliance());
+            builder.setZobristKey(pawnMovedBoard.getZobristKey() ^
+                    Zobrist.pieceKey(this.promotedPawn, this.destinationCoordinate) ^
+                    Zobrist.pieceKey(promotionPiece, this.destinationCoordinate));
             return builder.build();
         }
         @Override
@@ -255,7 +299,7 @@ public abstract class Move {
         }
         @Override
         public String toString() {
-            return "";
+            return this.decoratedMove.toString() + "=" + this.promotionType;
         }
     }
     public static final class PawnJump extends Move {
@@ -266,18 +310,12 @@ public abstract class Move {
         @Override
         public Board execute() {
             final Builder builder = new Builder();
-            for (final Piece piece : this.board.currentPlayer().getActivePieces()) {
-                if (!this.movedPiece.equals(piece)) {
-                    builder.setPiece(piece);
-                }
-            }
-            for (final Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()) {
-                builder.setPiece(piece);
-            }
             final Pawn movedPawn = (Pawn) this.movedPiece.movePiece(this);
-            builder.setPiece(movedPawn);
+            setPatchedPieces(builder, movedPawn);
+            builder.setCastled(this.board);
             builder.setEnPassantPawn(movedPawn);
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setZobristKey(calculateZobristKey() ^ Zobrist.enPassantKey(this.destinationCoordinate));
             return builder.build();
         }
         @Override
@@ -311,18 +349,17 @@ public abstract class Move {
         @Override
         public Board execute() {
             final Builder builder = new Builder();
-            for (final Piece piece : this.board.currentPlayer().getActivePieces()) {
-                if (!this.movedPiece.equals(piece) && !this.castleRook.equals(piece)) {
-                    builder.setPiece(piece);
-                }
-            }
-            for (final Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()) {
-                builder.setPiece(piece);
-            }
-            builder.setPiece(this.movedPiece.movePiece(this));
-            //TODO look into the first move on normal pieces
-            builder.setPiece(new Rook(this.castleRook.getPieceAlliance(), this.castleRookDestination));
+            final Player currentPlayer = this.board.currentPlayer();
+            final Collection<Piece> kingMovedPieces = replacePiece(currentPlayer.getActivePieces(),
+                    this.movedPiece, this.movedPiece.movePiece(this));
+            builder.setActivePieces(currentPlayer.getAlliance(), replacePiece(kingMovedPieces, this.castleRook,
+                    PieceUtils.getRook(this.castleRook.getPieceAlliance(), this.castleRookDestination, false)));
+            builder.setActivePieces(currentPlayer.getOpponent().getAlliance(), currentPlayer.getOpponent().getActivePieces());
+            builder.setCastled(this.board).setCastled(currentPlayer.getAlliance(), true);
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setZobristKey(calculateZobristKey() ^
+                    Zobrist.pieceKey(this.castleRook, this.castleRookStart) ^
+                    Zobrist.pieceKey(this.castleRook, this.castleRookDestination));
             return builder.build();
         }
         @Override
@@ -396,6 +433,10 @@ public abstract class Move {
         public int getCurrentCoordinate() {
             return -1;
         }
+        @Override
+        public String toString() {
+            return "Null Move";
+        }
     }
     public static class MoveFactory {
         private MoveFactory() {
@@ -411,6 +452,39 @@ public abstract class Move {
             return NULL_MOVE;
         }
 
+        /**
+         * Finds the legal move a {@link SearchBoard} int move stands for, promotion piece included.
+         */
+        public static Move createMove(final Board board, final int searchMove) {
+            final PieceType promotionType = SearchBoard.getPromotionType(searchMove);
+            for (final Move move:board.getAllLegalMoves()) {
+                if (move.getCurrentCoordinate() == SearchBoard.getSource(searchMove) &&
+                    move.getDestinationCoordinate() == SearchBoard.getDestination(searchMove) &&
+                    (promotionType == null || ((PawnPromotion) move).getPromotionType() == promotionType)) {
+                    return move;
+                }
+            }
+            return NULL_MOVE;
+        }
+
+        /**
+         * Turns a line of {@link SearchBoard} int moves, played one after the other from the
+         * given board, into legal moves. The line is cut short at the first move that is not legal.
+         */
+        public static List<Move> createMoves(final Board board, final int[] searchMoves) {
+            final ImmutableList.Builder<Move> moves = ImmutableList.builder();
+            Board currentBoard = board;
+            for (final int searchMove : searchMoves) {
+                final Move move = createMove(currentBoard, searchMove);
+                if (move == NULL_MOVE) {
+                    break;
+                }
+                moves.add(move);
+                currentBoard = move.execute();
+            }
+            return moves.build();
+        }
+
         public static Move getNullMove() {
             return NULL_MOVE;
         }
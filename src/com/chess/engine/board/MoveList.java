@@ -0,0 +1,55 @@
+package com.chess.engine.board;
+
+/**
+ * Reusable buffer of int-encoded {@link SearchBoard} moves. The search keeps one per ply and
+ * refills it at every node, so generating moves allocates nothing.
+ */
+public final class MoveList {
+
+    private final int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(SearchBoard.MAX_MOVES);
+    }
+
+    public MoveList(final int capacity) {
+        this.moves = new int[capacity];
+        this.size = 0;
+    }
+
+    public void add(final int move) {
+        this.moves[this.size++] = move;
+    }
+
+    public int get(final int index) {
+        return this.moves[index];
+    }
+
+    public void swap(final int first, final int second) {
+        final int move = this.moves[first];
+        this.moves[first] = this.moves[second];
+        this.moves[second] = move;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    public boolean contains(final int move) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
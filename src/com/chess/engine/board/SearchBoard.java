@@ -0,0 +1,504 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * Mutable position used by the search. Moves are plain ints, made and unmade in place,
+ * with everything a move destroys kept in a compact undo record so that nothing is
+ * allocated per node. The immutable {@link Board} stays the model for the GUI and PGN code.
+ */
+public final class SearchBoard {
+
+    public static final int MAX_MOVES = 256;
+    public static final int MAX_PLY = 128;
+    public static final int NO_PIECE = -1;
+    public static final int NO_SQUARE = -1;
+    //passing the turn, the search's counterpart of Move.NullMove; never a legal move
+    public static final int NULL_MOVE = 0;
+
+    //move layout: bits 0-5 source, bits 6-11 destination, bits 12-15 flag
+    public static final int QUIET = 0;
+    public static final int PAWN_JUMP = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    //promotion flags carry the new piece in their low two bits: knight, bishop, rook, queen
+    public static final int PROMOTION = 8;
+    public static final int KNIGHT_PROMOTION = PROMOTION;
+    public static final int BISHOP_PROMOTION = PROMOTION | 1;
+    public static final int ROOK_PROMOTION = PROMOTION | 2;
+    public static final int QUEEN_PROMOTION = PROMOTION | 3;
+    public static final int PROMOTION_CAPTURE = PROMOTION | CAPTURE;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    //generation stages: captures, en passant and promotions first, everything else second
+    private static final int TACTICAL_MOVES = 1;
+    private static final int QUIET_MOVES = 2;
+    private static final int ALL_MOVES = TACTICAL_MOVES | QUIET_MOVES;
+
+    private final long[] pieceBoards;
+    private final long[] occupancy;
+    private final int[] mailbox;
+    private final int[] moveStack;
+    private final int[] undoStack;
+    private final long[] zobristKeyStack;
+    private final KingSafety kingSafety;
+    private final MoveList legalityCheckList;
+    private Alliance sideToMove;
+    private int castlingRights;
+    //bit alliance.ordinal() is set once that side has castled
+    private int castled;
+    private int enPassantSquare;
+    private long zobristKey;
+    private int ply;
+
+    public SearchBoard(final Board board) {
+        this.pieceBoards = new long[BitBoard.NUM_PIECE_BOARDS];
+        this.occupancy = new long[2];
+        this.mailbox = new int[BoardUtils.NUM_TILES];
+        this.moveStack = new int[MAX_PLY];
+        this.undoStack = new int[MAX_PLY];
+        this.zobristKeyStack = new long[MAX_PLY];
+        this.kingSafety = new KingSafety();
+        this.legalityCheckList = new MoveList();
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            this.mailbox[i] = NO_PIECE;
+        }
+        for (final Piece piece : board.getAllPieces()) {
+            addPiece(piece.getPiecePosition(), BitBoard.index(piece.getPieceAlliance(), piece.getPieceType()));
+        }
+        this.sideToMove = board.currentPlayer().getAlliance();
+        this.castlingRights = board.getCastlingRights();
+        this.castled = (board.isCastled(Alliance.WHITE) ? 1 << Alliance.WHITE.ordinal() : 0) |
+                (board.isCastled(Alliance.BLACK) ? 1 << Alliance.BLACK.ordinal() : 0);
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        this.enPassantSquare = enPassantPawn == null ? NO_SQUARE :
+                enPassantPawn.getPiecePosition() - (enPassantPawn.getPieceAlliance().getDirection() * BoardUtils.NUM_TILES_PER_ROW);
+        this.zobristKey = board.getZobristKey();
+        this.ply = 0;
+    }
+
+    public static int createMove(final int source, final int destination, final int flag) {
+        return source | (destination << 6) | (flag << 12);
+    }
+
+    public static int getSource(final int move) {
+        return move & 0x3F;
+    }
+
+    public static int getDestination(final int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int getFlag(final int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static boolean isCapture(final int move) {
+        return (getFlag(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(final int move) {
+        return (getFlag(move) & PROMOTION) != 0;
+    }
+
+    //the moves generateCaptures produces, en passant included
+    public static boolean isCaptureOrPromotion(final int move) {
+        return (getFlag(move) & (CAPTURE | PROMOTION)) != 0;
+    }
+
+    //the piece a promotion turns the pawn into, null for any other move
+    public static PieceType getPromotionType(final int move) {
+        return isPromotion(move) ? PIECE_TYPES[PieceType.KNIGHT.ordinal() + (getFlag(move) & 3)] : null;
+    }
+
+    public Alliance getSideToMove() {
+        return this.sideToMove;
+    }
+
+    public int getPieceIndex(final int coordinate) {
+        return this.mailbox[coordinate];
+    }
+
+    public long getPieces(final Alliance alliance, final PieceType pieceType) {
+        return this.pieceBoards[BitBoard.index(alliance, pieceType)];
+    }
+
+    public long getOccupancy(final Alliance alliance) {
+        return this.occupancy[alliance.ordinal()];
+    }
+
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    public boolean isCastled(final Alliance alliance) {
+        return (this.castled & (1 << alliance.ordinal())) != 0;
+    }
+
+    public int getPly() {
+        return this.ply;
+    }
+
+    /**
+     * Plays a move produced by {@link #generateMoves(MoveList)} in place. Generated moves are
+     * strictly legal, so nothing has to be tested or taken back here.
+     */
+    public void makeMove(final int move) {
+        final int source = getSource(move);
+        final int destination = getDestination(move);
+        final int flag = getFlag(move);
+        final int movedPiece = this.mailbox[source];
+        final int capturedPiece = flag == EN_PASSANT ? NO_PIECE : this.mailbox[destination];
+        this.moveStack[this.ply] = move;
+        this.undoStack[this.ply] = (capturedPiece + 1) | (this.castlingRights << 4) | ((this.enPassantSquare + 1) << 8);
+        this.zobristKeyStack[this.ply] = this.zobristKey;
+        this.ply++;
+        if (this.enPassantSquare != NO_SQUARE) {
+            this.zobristKey ^= Zobrist.enPassantKey(enPassantPawnSquare());
+        }
+
+        if (capturedPiece != NO_PIECE) {
+            removePiece(destination, capturedPiece);
+        }
+        if (flag == EN_PASSANT) {
+            final int capturedPawnSquare = destination - (this.sideToMove.getDirection() * BoardUtils.NUM_TILES_PER_ROW);
+            removePiece(capturedPawnSquare, this.mailbox[capturedPawnSquare]);
+        }
+        removePiece(source, movedPiece);
+        addPiece(destination, (flag & PROMOTION) != 0 ? BitBoard.index(this.sideToMove, getPromotionType(move)) : movedPiece);
+        if (flag == KING_CASTLE) {
+            movePiece(destination + 1, destination - 1);
+        } else if (flag == QUEEN_CASTLE) {
+            movePiece(destination - 2, destination + 1);
+        }
+        if (flag == KING_CASTLE || flag == QUEEN_CASTLE) {
+            this.castled |= 1 << this.sideToMove.ordinal();
+        }
+        this.zobristKey ^= Zobrist.castlingKey(this.castlingRights);
+        this.castlingRights &= BoardUtils.CASTLING_RIGHTS_MASK[source] & BoardUtils.CASTLING_RIGHTS_MASK[destination];
+        this.zobristKey ^= Zobrist.castlingKey(this.castlingRights) ^ Zobrist.sideToMoveKey();
+        this.enPassantSquare = flag == PAWN_JUMP ? (source + destination) / 2 : NO_SQUARE;
+        if (flag == PAWN_JUMP) {
+            this.zobristKey ^= Zobrist.enPassantKey(destination);
+        }
+        this.sideToMove = this.sideToMove.opposite();
+    }
+
+    /**
+     * Passes the turn without moving, for null-move pruning. Only the side to move and the en
+     * passant square change; {@link #unmakeNullMove()} takes it back.
+     */
+    public void makeNullMove() {
+        this.moveStack[this.ply] = NULL_MOVE;
+        this.undoStack[this.ply] = (this.castlingRights << 4) | ((this.enPassantSquare + 1) << 8);
+        this.zobristKeyStack[this.ply] = this.zobristKey;
+        this.ply++;
+        if (this.enPassantSquare != NO_SQUARE) {
+            this.zobristKey ^= Zobrist.enPassantKey(enPassantPawnSquare());
+            this.enPassantSquare = NO_SQUARE;
+        }
+        this.zobristKey ^= Zobrist.sideToMoveKey();
+        this.sideToMove = this.sideToMove.opposite();
+    }
+
+    public void unmakeNullMove() {
+        this.ply--;
+        this.sideToMove = this.sideToMove.opposite();
+        this.enPassantSquare = ((this.undoStack[this.ply] >>> 8) & 0x7F) - 1;
+        this.zobristKey = this.zobristKeyStack[this.ply];
+    }
+
+    public void unmakeMove() {
+        this.ply--;
+        final int move = this.moveStack[this.ply];
+        final int undo = this.undoStack[this.ply];
+        final int source = getSource(move);
+        final int destination = getDestination(move);
+        final int flag = getFlag(move);
+        this.sideToMove = this.sideToMove.opposite();
+        this.castlingRights = (undo >>> 4) & 0xF;
+        this.enPassantSquare = ((undo >>> 8) & 0x7F) - 1;
+
+        if (flag == KING_CASTLE) {
+            movePiece(destination - 1, destination + 1);
+        } else if (flag == QUEEN_CASTLE) {
+            movePiece(destination + 1, destination - 2);
+        }
+        //a side castles at most once, so taking the castle back means it has not castled
+        if (flag == KING_CASTLE || flag == QUEEN_CASTLE) {
+            this.castled &= ~(1 << this.sideToMove.ordinal());
+        }
+        final int pieceOnDestination = this.mailbox[destination];
+        removePiece(destination, pieceOnDestination);
+        addPiece(source, (flag & PROMOTION) != 0 ? BitBoard.index(this.sideToMove, PieceType.PAWN) : pieceOnDestination);
+        final int capturedPiece = (undo & 0xF) - 1;
+        if (capturedPiece != NO_PIECE) {
+            addPiece(destination, capturedPiece);
+        }
+        if (flag == EN_PASSANT) {
+            final int capturedPawnSquare = destination - (this.sideToMove.getDirection() * BoardUtils.NUM_TILES_PER_ROW);
+            addPiece(capturedPawnSquare, BitBoard.index(this.sideToMove.opposite(), PieceType.PAWN));
+        }
+        this.zobristKey = this.zobristKeyStack[this.ply];
+    }
+
+    //the key covers the pawn that just jumped, which sits one rank past the en passant square
+    private int enPassantPawnSquare() {
+        return this.enPassantSquare + (this.sideToMove.getOppositeDirection() * BoardUtils.NUM_TILES_PER_ROW);
+    }
+
+    public boolean isInCheck(final Alliance alliance) {
+        final long king = getPieces(alliance, PieceType.KING);
+        return king != BitBoard.EMPTY && isSquareAttacked(Long.numberOfTrailingZeros(king), alliance.opposite());
+    }
+
+    public boolean isInCheck() {
+        return isInCheck(this.sideToMove);
+    }
+
+    public boolean hasLegalMoves() {
+        return generateMoves(this.sideToMove, null, ALL_MOVES) != 0;
+    }
+
+    /**
+     * Refills the list with the side to move's legal moves and returns how many there are.
+     */
+    public int generateMoves(final MoveList moves) {
+        moves.clear();
+        return generateMoves(this.sideToMove, moves, ALL_MOVES);
+    }
+
+    /**
+     * Refills the list with the side to move's legal captures, en passant captures and
+     * promotions, the moves a search wants to try first.
+     */
+    public int generateCaptures(final MoveList moves) {
+        moves.clear();
+        return generateMoves(this.sideToMove, moves, TACTICAL_MOVES);
+    }
+
+    /**
+     * Refills the list with the legal moves {@link #generateCaptures(MoveList)} leaves out:
+     * non-capturing piece moves, pawn pushes short of promotion and castles.
+     */
+    public int generateQuietMoves(final MoveList moves) {
+        moves.clear();
+        return generateMoves(this.sideToMove, moves, QUIET_MOVES);
+    }
+
+    /**
+     * Counts the legal moves an alliance would have if it were its turn, castles included.
+     */
+    public int countMoves(final Alliance alliance) {
+        return generateMoves(alliance, null, ALL_MOVES);
+    }
+
+    /**
+     * Tells whether a move remembered from elsewhere, such as a transposition table, is legal
+     * for the side to move here. Only the moves of the piece on its source tile are generated.
+     */
+    public boolean isLegalMove(final int move) {
+        if (move < 0) {
+            return false;
+        }
+        final int source = getSource(move);
+        final int pieceIndex = this.mailbox[source];
+        if (pieceIndex == NO_PIECE || pieceIndex / BitBoard.NUM_PIECE_TYPES != this.sideToMove.ordinal()) {
+            return false;
+        }
+        final long occupancy = allOccupancy();
+        this.kingSafety.calculate(this.pieceBoards, occupancy, this.sideToMove);
+        this.legalityCheckList.clear();
+        generateSquareMoves(this.sideToMove, source, occupancy, ~0L, ALL_MOVES, this.legalityCheckList, 0);
+        if (pieceIndex % BitBoard.NUM_PIECE_TYPES == PieceType.KING.ordinal()) {
+            generateCastles(this.sideToMove, this.legalityCheckList, 0);
+        }
+        return this.legalityCheckList.contains(move);
+    }
+
+    public boolean isSquareAttacked(final int square, final Alliance attackingAlliance) {
+        return BitBoard.attackersOf(square, attackingAlliance, this.pieceBoards, allOccupancy()) != BitBoard.EMPTY;
+    }
+
+    private long allOccupancy() {
+        return this.occupancy[0] | this.occupancy[1];
+    }
+
+    private int generateMoves(final Alliance alliance, final MoveList moves, final int stages) {
+        final long occupancy = allOccupancy();
+        this.kingSafety.calculate(this.pieceBoards, occupancy, alliance);
+        //the tiles piece moves may land on in these stages
+        final long targets = stages == ALL_MOVES ? ~0L :
+                stages == TACTICAL_MOVES ? this.occupancy[alliance.opposite().ordinal()] : ~occupancy;
+        int numMoves = 0;
+        long pieces = this.occupancy[alliance.ordinal()];
+        while (pieces != BitBoard.EMPTY) {
+            final int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            numMoves = generateSquareMoves(alliance, square, occupancy, targets, stages, moves, numMoves);
+        }
+        return (stages & QUIET_MOVES) != 0 ? generateCastles(alliance, moves, numMoves) : numMoves;
+    }
+
+    private int generateSquareMoves(final Alliance alliance,
+                                    final int square,
+                                    final long occupancy,
+                                    final long targets,
+                                    final int stages,
+                                    final MoveList moves,
+                                    final int numMoves) {
+        switch (PIECE_TYPES[this.mailbox[square] % BitBoard.NUM_PIECE_TYPES]) {
+            case PAWN:
+                return generatePawnMoves(alliance, square, stages, moves, numMoves);
+            case KNIGHT:
+                return generatePieceMoves(alliance, square, BoardUtils.KNIGHT_ATTACKS[square] & targets, moves, numMoves);
+            case BISHOP:
+                return generatePieceMoves(alliance, square, BitBoard.bishopAttacks(square, occupancy) & targets, moves, numMoves);
+            case ROOK:
+                return generatePieceMoves(alliance, square, BitBoard.rookAttacks(square, occupancy) & targets, moves, numMoves);
+            case QUEEN:
+                return generatePieceMoves(alliance, square, BitBoard.queenAttacks(square, occupancy) & targets, moves, numMoves);
+            case KING:
+                return generatePieceMoves(alliance, square, BoardUtils.KING_ATTACKS[square] & targets, moves, numMoves);
+            default:
+                return numMoves;
+        }
+    }
+
+    private int generatePawnMoves(final Alliance alliance,
+                                  final int square,
+                                  final int stages,
+                                  final MoveList moves,
+                                  int numMoves) {
+        final int forward = alliance.getDirection() * BoardUtils.NUM_TILES_PER_ROW;
+        final int advance = square + forward;
+        final boolean promotes = alliance.isPawnPromotionSquare(advance);
+        if (this.mailbox[advance] == NO_PIECE) {
+            if (promotes) {
+                if ((stages & TACTICAL_MOVES) != 0) {
+                    numMoves = addPromotions(moves, numMoves, square, advance, QUIET);
+                }
+            } else if ((stages & QUIET_MOVES) != 0) {
+                numMoves = addMove(moves, numMoves, createMove(square, advance, QUIET));
+                final boolean onStartingRank = alliance.isWhite() ? BoardUtils.SECOND_RANK[square] : BoardUtils.SEVENTH_RANK[square];
+                if (onStartingRank && this.mailbox[advance + forward] == NO_PIECE) {
+                    numMoves = addMove(moves, numMoves, createMove(square, advance + forward, PAWN_JUMP));
+                }
+            }
+        }
+        if ((stages & TACTICAL_MOVES) == 0) {
+            return numMoves;
+        }
+        long captures = BoardUtils.PAWN_ATTACKS[alliance.ordinal()][square] & this.occupancy[alliance.opposite().ordinal()];
+        while (captures != BitBoard.EMPTY) {
+            final int destination = Long.numberOfTrailingZeros(captures);
+            numMoves = promotes ? addPromotions(moves, numMoves, square, destination, CAPTURE) :
+                    addMove(moves, numMoves, createMove(square, destination, CAPTURE));
+            captures &= captures - 1;
+        }
+        if (this.enPassantSquare != NO_SQUARE && alliance == this.sideToMove &&
+                (BoardUtils.PAWN_ATTACKS[alliance.ordinal()][square] & BitBoard.tileMask(this.enPassantSquare)) != 0) {
+            numMoves = addMove(moves, numMoves, createMove(square, this.enPassantSquare, EN_PASSANT));
+        }
+        return numMoves;
+    }
+
+    private int generatePieceMoves(final Alliance alliance,
+                                   final int square,
+                                   final long attacks,
+                                   final MoveList moves,
+                                   int numMoves) {
+        long destinations = attacks & ~this.occupancy[alliance.ordinal()];
+        while (destinations != BitBoard.EMPTY) {
+            final int destination = Long.numberOfTrailingZeros(destinations);
+            destinations &= destinations - 1;
+            numMoves = addMove(moves, numMoves, createMove(square, destination,
+                    this.mailbox[destination] == NO_PIECE ? QUIET : CAPTURE));
+        }
+        return numMoves;
+    }
+
+    private int generateCastles(final Alliance alliance, final MoveList moves, int numMoves) {
+        final int kingSide = alliance.isWhite() ? BoardUtils.WHITE_KING_SIDE_CASTLE : BoardUtils.BLACK_KING_SIDE_CASTLE;
+        final int queenSide = alliance.isWhite() ? BoardUtils.WHITE_QUEEN_SIDE_CASTLE : BoardUtils.BLACK_QUEEN_SIDE_CASTLE;
+        if ((this.castlingRights & (kingSide | queenSide)) == 0) {
+            return numMoves;
+        }
+        final int kingSquare = alliance.isWhite() ? 60 : 4;
+        if ((this.castlingRights & kingSide) != 0 &&
+                this.mailbox[kingSquare + 1] == NO_PIECE &&
+                this.mailbox[kingSquare + 2] == NO_PIECE &&
+                this.kingSafety.isLegalCastle(kingSquare + 2)) {
+            numMoves = addCastle(moves, numMoves, createMove(kingSquare, kingSquare + 2, KING_CASTLE));
+        }
+        if ((this.castlingRights & queenSide) != 0 &&
+                this.mailbox[kingSquare - 1] == NO_PIECE &&
+                this.mailbox[kingSquare - 2] == NO_PIECE &&
+                this.mailbox[kingSquare - 3] == NO_PIECE &&
+                this.kingSafety.isLegalCastle(kingSquare - 2)) {
+            numMoves = addCastle(moves, numMoves, createMove(kingSquare, kingSquare - 2, QUEEN_CASTLE));
+        }
+        return numMoves;
+    }
+
+    private static int addCastle(final MoveList moves, final int numMoves, final int move) {
+        if (moves != null) {
+            moves.add(move);
+        }
+        return numMoves + 1;
+    }
+
+    //queen first, so a caller matching on tiles alone still finds the usual promotion
+    private int addPromotions(final MoveList moves,
+                              final int numMoves,
+                              final int source,
+                              final int destination,
+                              final int capture) {
+        if (!this.kingSafety.isLegal(source, destination, false)) {
+            return numMoves;
+        }
+        if (moves != null) {
+            for (int flag = QUEEN_PROMOTION; flag >= KNIGHT_PROMOTION; flag--) {
+                moves.add(createMove(source, destination, flag | capture));
+            }
+        }
+        return numMoves + 4;
+    }
+
+    private int addMove(final MoveList moves, final int numMoves, final int move) {
+        if (!this.kingSafety.isLegal(getSource(move), getDestination(move), getFlag(move) == EN_PASSANT)) {
+            return numMoves;
+        }
+        if (moves != null) {
+            moves.add(move);
+        }
+        return numMoves + 1;
+    }
+
+    private void addPiece(final int square, final int pieceIndex) {
+        final long mask = BitBoard.tileMask(square);
+        this.mailbox[square] = pieceIndex;
+        this.zobristKey ^= Zobrist.pieceKey(pieceIndex, square);
+        this.pieceBoards[pieceIndex] |= mask;
+        this.occupancy[pieceIndex / BitBoard.NUM_PIECE_TYPES] |= mask;
+    }
+
+    private void removePiece(final int square, final int pieceIndex) {
+        final long mask = ~BitBoard.tileMask(square);
+        this.mailbox[square] = NO_PIECE;
+        this.zobristKey ^= Zobrist.pieceKey(pieceIndex, square);
+        this.pieceBoards[pieceIndex] &= mask;
+        this.occupancy[pieceIndex / BitBoard.NUM_PIECE_TYPES] &= mask;
+    }
+
+    private void movePiece(final int source, final int destination) {
+        final int pieceIndex = this.mailbox[source];
+        removePiece(source, pieceIndex);
+        addPiece(destination, pieceIndex);
+    }
+}
@@ -0,0 +1,73 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+
+import java.util.Collection;
+import java.util.Random;
+
+public enum Zobrist {
+    INSTANCE;
+
+    //fixed seed, so keys stay stable between runs and can be stored next to book and table entries
+    private static final Random RANDOM = new Random(0x5A0B125L);
+    private static final long[][] PIECE_KEYS = initPieceKeys();
+    private static final long[] CASTLING_KEYS = initKeys(BoardUtils.ALL_CASTLING_RIGHTS + 1);
+    private static final long[] EN_PASSANT_KEYS = initKeys(BoardUtils.NUM_TILES);
+    private static final long BLACK_TO_MOVE_KEY = RANDOM.nextLong();
+
+    private static long[][] initPieceKeys() {
+        final long[][] keys = new long[BitBoard.NUM_PIECE_BOARDS][];
+        for (int i = 0; i < BitBoard.NUM_PIECE_BOARDS; i++) {
+            keys[i] = initKeys(BoardUtils.NUM_TILES);
+        }
+        return keys;
+    }
+
+    private static long[] initKeys(final int size) {
+        final long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = RANDOM.nextLong();
+        }
+        return keys;
+    }
+
+    public static long pieceKey(final int pieceIndex, final int coordinate) {
+        return PIECE_KEYS[pieceIndex][coordinate];
+    }
+
+    public static long pieceKey(final Piece piece, final int coordinate) {
+        return PIECE_KEYS[BitBoard.index(piece.getPieceAlliance(), piece.getPieceType())][coordinate];
+    }
+
+    public static long castlingKey(final int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    public static long enPassantKey(final int enPassantPawnCoordinate) {
+        return EN_PASSANT_KEYS[enPassantPawnCoordinate];
+    }
+
+    //toggled by every move, present in the key when black is to move
+    public static long sideToMoveKey() {
+        return BLACK_TO_MOVE_KEY;
+    }
+
+    public static long calculateKey(final Collection<Piece> pieces,
+                                    final Alliance moveMaker,
+                                    final int castlingRights,
+                                    final Pawn enPassantPawn) {
+        long key = castlingKey(castlingRights);
+        for (final Piece piece : pieces) {
+            key ^= pieceKey(piece, piece.getPiecePosition());
+        }
+        if (moveMaker.isBlack()) {
+            key ^= BLACK_TO_MOVE_KEY;
+        }
+        if (enPassantPawn != null) {
+            key ^= enPassantKey(enPassantPawn.getPiecePosition());
+        }
+        return key;
+    }
+}
@@ -1,6 +1,7 @@
 package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
@@ -14,90 +15,72 @@ import static com.chess.engine.board.Move.*;
 
 public class Pawn extends Piece {
 
-    private final static int[] CANDIDATE_MOVE_COORDINATE = {8, 16, 7, 9};
+    //strongest first, so a move picked by its tiles alone promotes to a queen
+    private final static PieceType[] PROMOTION_TYPES = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
 
-    public Pawn(final Alliance pieceAlliance, final int piecePosition) {
-        super(PieceType.PAWN, piecePosition, pieceAlliance, true);
-    }
-    public Pawn(final Alliance pieceAlliance, final int piecePosition, final boolean isFirstMove) {
+    Pawn(final Alliance pieceAlliance, final int piecePosition, final boolean isFirstMove) {
         super(PieceType.PAWN, piecePosition, pieceAlliance, isFirstMove);
     }
 
     @Override
     public Collection<Move> calculateLegalMoves(final Board board) {
         final List<Move> legalMoves = new ArrayList<>();
-        for (final int currentCandidateOffset:CANDIDATE_MOVE_COORDINATE) {
-            int candidateDestinationCoordinate = this.piecePosition + (this.pieceAlliance.getDirection() * currentCandidateOffset);
-            if (!BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                continue;
-            }
-            if (currentCandidateOffset == 8 && !board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)) {
-                    legalMoves.add(new PawnPromotion(new PawnMove(board, this, candidateDestinationCoordinate)));
-                } else {
-                    legalMoves.add(new PawnMove(board, this, candidateDestinationCoordinate));
+        final BitBoard bitBoard = board.getBitBoard();
+        final int forward = this.pieceAlliance.getDirection() * BoardUtils.NUM_TILES_PER_ROW;
+        final int candidateDestinationCoordinate = this.piecePosition + forward;
+        if (!bitBoard.isTileOccupied(candidateDestinationCoordinate)) {
+            if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)) {
+                for (final PieceType promotionType : PROMOTION_TYPES) {
+                    legalMoves.add(new PawnPromotion(new PawnMove(board, this, candidateDestinationCoordinate), promotionType));
                 }
-            } else if (currentCandidateOffset == 16 && this.isFirstMove() &&
+            } else {
+                legalMoves.add(new PawnMove(board, this, candidateDestinationCoordinate));
+            }
+            final int jumpDestinationCoordinate = candidateDestinationCoordinate + forward;
+            if (this.isFirstMove() &&
                     ((BoardUtils.SEVENTH_RANK[this.piecePosition] && this.getPieceAlliance().isBlack()) ||
-                    (BoardUtils.SECOND_RANK[this.piecePosition] && this.getPieceAlliance().isWhite()))) {
-                final int behindCandidateDestinationCoordinate = this.piecePosition + (this.pieceAlliance.getDirection() * 8);
-                if (!board.getTile(behindCandidateDestinationCoordinate).isTileOccupied() &&
-                        !board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                    legalMoves.add(new PawnJump(board, this, candidateDestinationCoordinate));
-                }
-            } else if (currentCandidateOffset == 7 &&
-                    !(BoardUtils.EIGHTH_COLUMN[this.piecePosition] && this.pieceAlliance.isWhite() ||
-                            (BoardUtils.FIRST_COLUMN[this.piecePosition] && this.pieceAlliance.isBlack() ))) {
-                if (board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                    final Piece pieceOnCandidate = board.getTile(candidateDestinationCoordinate).getPiece();
-                    if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
-                        if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)) {
-                            legalMoves.add(new PawnPromotion(new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate)));
-                        }else {
-                            legalMoves.add(new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
-                        }
-                    }
-                } else if (board.getEnPassantPawn() != null) {
-                    if (board.getEnPassantPawn().getPiecePosition() == (this.piecePosition + (this.pieceAlliance.getOppositeDirection()))) {
-                        final Piece pieceOnCandidate = board.getEnPassantPawn();
-                        if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
-                            legalMoves.add(new PawnEnPassantAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
-                        }
-                    }
-                }
-            } else if (currentCandidateOffset == 9 &&
-                    !(BoardUtils.FIRST_COLUMN[this.piecePosition] && this.pieceAlliance.isWhite() ||
-                            (BoardUtils.EIGHTH_COLUMN[this.piecePosition] && this.pieceAlliance.isBlack() ))) {
-                if (board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                    final Piece pieceOnCandidate = board.getTile(candidateDestinationCoordinate).getPiece();
-                    if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
-                        if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)) {
-                            legalMoves.add(new PawnPromotion(new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate)));
-                        } else {
-                            legalMoves.add(new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
-                        }
-                    }
-                } else if (board.getEnPassantPawn() != null) {
-                    if (board.getEnPassantPawn().getPiecePosition() == (this.piecePosition - (this.pieceAlliance.getOppositeDirection()))) {
-                        final Piece pieceOnCandidate = board.getEnPassantPawn();
-                        if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
-                            legalMoves.add(new PawnEnPassantAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
-                        }
-                    }
+                    (BoardUtils.SECOND_RANK[this.piecePosition] && this.getPieceAlliance().isWhite())) &&
+                    !bitBoard.isTileOccupied(jumpDestinationCoordinate)) {
+                legalMoves.add(new PawnJump(board, this, jumpDestinationCoordinate));
+            }
+        }
+        final long attacks = BoardUtils.PAWN_ATTACKS[this.pieceAlliance.ordinal()][this.piecePosition];
+        long captures = attacks & bitBoard.getOccupancy(this.pieceAlliance.opposite());
+        while (captures != BitBoard.EMPTY) {
+            final int attackDestinationCoordinate = Long.numberOfTrailingZeros(captures);
+            final Piece pieceOnCandidate = board.getPiece(attackDestinationCoordinate);
+            if (this.pieceAlliance.isPawnPromotionSquare(attackDestinationCoordinate)) {
+                for (final PieceType promotionType : PROMOTION_TYPES) {
+                    legalMoves.add(new PawnPromotion(new PawnAttackMove(board, this, attackDestinationCoordinate, pieceOnCandidate), promotionType));
                 }
+            } else {
+                legalMoves.add(new PawnAttackMove(board, this, attackDestinationCoordinate, pieceOnCandidate));
+            }
+            captures &= captures - 1;
+        }
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        if (enPassantPawn != null && this.pieceAlliance != enPassantPawn.getPieceAlliance()) {
+            //the capturing pawn lands on the tile the jumping pawn passed over
+            final int enPassantCoordinate = enPassantPawn.getPiecePosition() + forward;
+            if ((attacks & BitBoard.tileMask(enPassantCoordinate)) != 0) {
+                legalMoves.add(new PawnEnPassantAttackMove(board, this, enPassantCoordinate, enPassantPawn));
             }
         }
         return ImmutableList.copyOf(legalMoves);
     }
     @Override
     public Pawn movePiece(final Move move) {
-        return new Pawn(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate());
+        return PieceUtils.getPawn(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate(), false);
     }
     @Override
     public String toString() {
         return PieceType.PAWN.toString();
     }
     public Piece getPromotionPiece() {
-        return new Queen(this.pieceAlliance, this.piecePosition, false);
+        return getPromotionPiece(PieceType.QUEEN);
     }
+    public Piece getPromotionPiece(final PieceType promotionType) {
+        return PieceUtils.getPiece(promotionType, this.pieceAlliance, this.piecePosition, false);
+    }
+
 }
@@ -1,10 +1,16 @@
 package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MajorAttackMove;
+import com.chess.engine.board.Move.MajorMove;
+import com.google.common.collect.ImmutableList;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 public abstract class Piece {
 
@@ -30,17 +36,10 @@ public abstract class Piece {
         return result;
     }
 
+    //pieces only come from PieceUtils, one instance each, so equal pieces are the same object
     @Override
     public boolean equals(final Object other) {
-        if (this == other) {
-            return true;
-        }
-        if (!(other instanceof Piece)) {
-            return false;
-        }
-        final Piece otherPiece = (Piece) other;
-        return piecePosition == otherPiece.getPiecePosition() && pieceType == otherPiece.getPieceType() &&
-                pieceAlliance == otherPiece.getPieceAlliance() && isFirstMove == otherPiece.isFirstMove();
+        return this == other;
     }
     @Override
     public int hashCode() {
@@ -70,6 +69,24 @@ public abstract class Piece {
 
     public abstract Piece movePiece(Move move);
 
+    //turns the piece's attack set into moves to the empty tiles and captures of enemy pieces
+    protected Collection<Move> calculateAttackSetMoves(final Board board, final long attacks) {
+        final List<Move> legalMoves = new ArrayList<>();
+        final BitBoard bitBoard = board.getBitBoard();
+        long destinations = attacks & ~bitBoard.getOccupancy(this.pieceAlliance);
+        while (destinations != BitBoard.EMPTY) {
+            final int candidateDestinationCoordinate = Long.numberOfTrailingZeros(destinations);
+            if (!bitBoard.isTileOccupied(candidateDestinationCoordinate)) {
+                legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
+            } else {
+                legalMoves.add(new MajorAttackMove(board, this, candidateDestinationCoordinate,
+                        board.getPiece(candidateDestinationCoordinate)));
+            }
+            destinations &= destinations - 1;
+        }
+        return ImmutableList.copyOf(legalMoves);
+    }
+
     public enum PieceType {
         PAWN("P", 100) {
             @Override
@@ -0,0 +1,90 @@
+package com.chess.engine.pieces;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * Every piece there can be, one per type, alliance, tile and first-move flag, created once.
+ * Pieces are immutable, so boards and moves share these instances instead of allocating their
+ * own, and two pieces are equal exactly when they are the same object.
+ */
+public enum PieceUtils {
+    INSTANCE;
+
+    private static final Piece[] ALL_PIECES = initPieces();
+
+    private static Piece[] initPieces() {
+        final Piece[] pieces = new Piece[BitBoard.NUM_PIECE_BOARDS * BoardUtils.NUM_TILES * 2];
+        for (final Alliance alliance : Alliance.values()) {
+            for (final PieceType pieceType : PieceType.values()) {
+                for (int position = 0; position < BoardUtils.NUM_TILES; position++) {
+                    pieces[index(pieceType, alliance, position, false)] = createPiece(pieceType, alliance, position, false);
+                    pieces[index(pieceType, alliance, position, true)] = createPiece(pieceType, alliance, position, true);
+                }
+            }
+        }
+        return pieces;
+    }
+
+    private static Piece createPiece(final PieceType pieceType,
+                                     final Alliance alliance,
+                                     final int position,
+                                     final boolean isFirstMove) {
+        switch (pieceType) {
+            case PAWN:
+                return new Pawn(alliance, position, isFirstMove);
+            case KNIGHT:
+                return new Knight(alliance, position, isFirstMove);
+            case BISHOP:
+                return new Bishop(alliance, position, isFirstMove);
+            case ROOK:
+                return new Rook(alliance, position, isFirstMove);
+            case QUEEN:
+                return new Queen(alliance, position, isFirstMove);
+            case KING:
+                return new King(alliance, position, isFirstMove);
+            default:
+                throw new IllegalArgumentException("Unknown piece type " + pieceType);
+        }
+    }
+
+    private static int index(final PieceType pieceType,
+                             final Alliance alliance,
+                             final int position,
+                             final boolean isFirstMove) {
+        return ((BitBoard.index(alliance, pieceType) * BoardUtils.NUM_TILES) + position) * 2 + (isFirstMove ? 1 : 0);
+    }
+
+    public static Piece getPiece(final PieceType pieceType,
+                                 final Alliance alliance,
+                                 final int position,
+                                 final boolean isFirstMove) {
+        return ALL_PIECES[index(pieceType, alliance, position, isFirstMove)];
+    }
+
+    public static Pawn getPawn(final Alliance alliance, final int position, final boolean isFirstMove) {
+        return (Pawn) getPiece(PieceType.PAWN, alliance, position, isFirstMove);
+    }
+
+    public static Knight getKnight(final Alliance alliance, final int position, final boolean isFirstMove) {
+        return (Knight) getPiece(PieceType.KNIGHT, alliance, position, isFirstMove);
+    }
+
+    public static Bishop getBishop(final Alliance alliance, final int position, final boolean isFirstMove) {
+        return (Bishop) getPiece(PieceType.BISHOP, alliance, position, isFirstMove);
+    }
+
+    public static Rook getRook(final Alliance alliance, final int position, final boolean isFirstMove) {
+        return (Rook) getPiece(PieceType.ROOK, alliance, position, isFirstMove);
+    }
+
+    public static Queen getQueen(final Alliance alliance, final int position, final boolean isFirstMove) {
+        return (Queen) getPiece(PieceType.QUEEN, alliance, position, isFirstMove);
+    }
+
+    public static King getKing(final Alliance alliance, final int position, final boolean isFirstMove) {
+        return (King) getPiece(PieceType.KING, alliance, position, isFirstMove);
+    }
+}
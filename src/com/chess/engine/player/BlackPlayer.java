@@ -15,8 +15,8 @@ import java.util.List;
 import static com.chess.engine.board.Move.*;
 
 public class BlackPlayer extends Player {
-    public BlackPlayer(final Board board, final  Collection<Move> whiteStandardLegalMoves, final Collection<Move> blackStandardLegalMoves) {
-        super(board, blackStandardLegalMoves, whiteStandardLegalMoves);
+    public BlackPlayer(final Board board) {
+        super(board);
     }
 
     @Override
@@ -35,15 +35,15 @@ public class BlackPlayer extends Player {
     }
 
     @Override
-    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals, final Collection<Move> opponentsLegal) {
+    protected Collection<Move> calculateKingCastles() {
         final List<Move> kingCastles = new ArrayList<>();
         if (this.playerKing.isFirstMove() && !this.isInCheck()) {
             //blacks king side castle
-            if (!this.board.getTile(5).isTileOccupied() && !this.board.getTile(6).isTileOccupied()) {
+            if (!this.board.getBitBoard().isTileOccupied(5) && !this.board.getBitBoard().isTileOccupied(6)) {
                 final Tile rookTile = this.board.getTile(7);
                 if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
-                    if (Player.calculateAttacksOnTile(5, opponentsLegal).isEmpty() &&
-                            Player.calculateAttacksOnTile(6, opponentsLegal).isEmpty() &&
+                    if (!this.board.isSquareAttacked(5, Alliance.WHITE) &&
+                            !this.board.isSquareAttacked(6, Alliance.WHITE) &&
                             rookTile.getPiece().getPieceType().isRook()) {
                         kingCastles.add(new KingSideCastleMove(this.board,
                                                                this.playerKing,
@@ -54,13 +54,13 @@ public class BlackPlayer extends Player {
                     }
                 }
             }
-            if (!this.board.getTile(1).isTileOccupied() &&
-                    !this.board.getTile(2).isTileOccupied() &&
-                    !this.board.getTile(3).isTileOccupied()) {
+            if (!this.board.getBitBoard().isTileOccupied(1) &&
+                    !this.board.getBitBoard().isTileOccupied(2) &&
+                    !this.board.getBitBoard().isTileOccupied(3)) {
                 final Tile rookTile = this.board.getTile(0);
                 if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove() &&
-                    Player.calculateAttacksOnTile(2, opponentsLegal).isEmpty() &&
-                    Player.calculateAttacksOnTile(3, opponentsLegal).isEmpty() &&
+                    !this.board.isSquareAttacked(2, Alliance.WHITE) &&
+                    !this.board.isSquareAttacked(3, Alliance.WHITE) &&
                     rookTile.getPiece().getPieceType().isRook()) {
                     kingCastles.add(new QueenSideCastleMove(this.board,
                                                             this.playerKing,
@@ -2,7 +2,9 @@ package com.chess.engine.player;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
+import com.chess.engine.board.KingSafety;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.PawnEnPassantAttackMove;
 import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Piece;
 import com.google.common.collect.ImmutableList;
@@ -16,83 +18,100 @@ public abstract class Player {
 
     protected final Board board;
     protected final King playerKing;
-    protected final Collection<Move> legalMoves;
-    private final boolean isInCheck;
+    private volatile KingSafety kingSafety;
+    private volatile Collection<Move> pseudoLegalMoves;
+    private volatile Collection<Move> legalMoves;
 
-    Player(final Board board,
-           final Collection<Move> legalMoves,
-           final Collection<Move> opponentMoves) {
+    Player(final Board board) {
         this.board = board;
         this.playerKing = establishKing();
-        this.legalMoves = ImmutableList.copyOf(Iterables.concat(legalMoves, calculateKingCastles(legalMoves, opponentMoves)));
-        this.isInCheck = !Player.calculateAttacksOnTile(this.playerKing.getPiecePosition(), opponentMoves).isEmpty();
     }
     public King getPlayerKing() {
         return this.playerKing;
     }
     public Collection<Move> getLegalMoves() {
-        return this.legalMoves;
+        Collection<Move> moves = this.legalMoves;
+        if (moves == null) {
+            final KingSafety kingSafety = getKingSafety();
+            final List<Move> safeMoves = new ArrayList<>();
+            for (final Move move : getPseudoLegalMoves()) {
+                if (isSafe(move, kingSafety)) {
+                    safeMoves.add(move);
+                }
+            }
+            moves = ImmutableList.copyOf(safeMoves);
+            this.legalMoves = moves;
+        }
+        return moves;
     }
 
-    protected static Collection<Move> calculateAttacksOnTile(int piecePosition, Collection<Move>moves) {
-        final List<Move> attackMoves = new ArrayList<>();
-        for (final Move move: moves) {
-            if (piecePosition == move.getDestinationCoordinate()) {
-                attackMoves.add(move);
-            }
+    private Collection<Move> getPseudoLegalMoves() {
+        Collection<Move> moves = this.pseudoLegalMoves;
+        if (moves == null) {
+            moves = ImmutableList.copyOf(Iterables.concat(this.board.getStandardLegalMoves(getAlliance()), calculateKingCastles()));
+            this.pseudoLegalMoves = moves;
+        }
+        return moves;
+    }
+
+    private KingSafety getKingSafety() {
+        KingSafety safety = this.kingSafety;
+        if (safety == null) {
+            safety = this.board.getBitBoard().calculateKingSafety(getAlliance());
+            this.kingSafety = safety;
+        }
+        return safety;
+    }
+
+    //castles are only generated when the king's path is not attacked, see calculateKingCastles
+    private static boolean isSafe(final Move move, final KingSafety kingSafety) {
+        if (move.isCastlingMove()) {
+            return true;
         }
-        return ImmutableList.copyOf(attackMoves);
+        return kingSafety.isLegal(move.getCurrentCoordinate(), move.getDestinationCoordinate(),
+                move instanceof PawnEnPassantAttackMove);
     }
 
     private King establishKing() {
-        for(final Piece piece: getActivePieces()) {
-            if (piece.getPieceType().isKing()) {
-                return (King) piece;
-            }
+        final int kingCoordinate = this.board.getBitBoard().getKingCoordinate(getAlliance());
+        if (kingCoordinate != -1) {
+            return (King) this.board.getPiece(kingCoordinate);
         }
         throw new RuntimeException("Should not reach here! Not a valid board!");
     }
 
     public boolean isMoveLegal(final Move move) {
-        return this.legalMoves.contains(move);
+        return getLegalMoves().contains(move);
     }
 
     public boolean isInCheck() {
-        return this.isInCheck;
+        return getKingSafety().isInCheck();
     }
 
     public boolean isInCheckMate() {
-        return this.isInCheck && !hasEscapeMoves() ;
+        return isInCheck() && !hasEscapeMoves() ;
     }
     //TODO implement these methods below!!!
     public boolean isInStaleMate() {
-        return !this.isInCheck && !hasEscapeMoves();
+        return !isInCheck() && !hasEscapeMoves();
     }
 
     protected boolean hasEscapeMoves() {
-        for (final Move move: this.legalMoves) {
-            final MoveTransition transition = makeMove(move);
-            if (transition.getMoveStatus().isDone()) {
-                return true;
-            }
-        }
-        return false;
+        return !getLegalMoves().isEmpty();
     }
 
 
-    public boolean isCastled() { return false; }
+    public boolean isCastled() {
+        return this.board.isCastled(getAlliance());
+    }
 
     public MoveTransition makeMove(final Move move) {
         if (!isMoveLegal(move)) {
-            return new MoveTransition(this.board, this.board, move, MoveStatus.ILLEGAL_MOVE);
-        }
-        final Board transitionBoard = move.execute();
-        final Collection<Move> kingAttacks = Player.calculateAttacksOnTile(transitionBoard.currentPlayer().getOpponent().getPlayerKing().getPiecePosition(),
-                transitionBoard.currentPlayer().getLegalMoves());
-        if (!kingAttacks.isEmpty()) {
-            return new MoveTransition(this.board, this.board, move, MoveStatus.LEAVES_PLAYER_IN_CHECK);
+            final MoveStatus moveStatus = getPseudoLegalMoves().contains(move) ?
+                    MoveStatus.LEAVES_PLAYER_IN_CHECK : MoveStatus.ILLEGAL_MOVE;
+            return new MoveTransition(this.board, this.board, move, moveStatus);
         }
-        return new MoveTransition(this.board, transitionBoard, move, MoveStatus.DONE);
+        return new MoveTransition(this.board, move.execute(), move, MoveStatus.DONE);
     }
 
     public MoveTransition unMakeMove(final Move move) {
@@ -102,5 +121,5 @@ public abstract class Player {
     public abstract Collection<Piece> getActivePieces();
     public abstract Alliance getAlliance();
     public abstract Player getOpponent();
-    protected abstract Collection<Move> calculateKingCastles(Collection<Move> playerLegals, Collection<Move> opponentsLegal);
+    protected abstract Collection<Move> calculateKingCastles();
 }
@@ -15,8 +15,8 @@ import java.util.List;
 import static com.chess.engine.board.Move.*;
 
 public class WhitePlayer extends Player {
-    public WhitePlayer(final Board board, final Collection<Move> whiteStandardLegalMoves, final Collection<Move> blackStandardLegalMoves) {
-        super(board,whiteStandardLegalMoves, blackStandardLegalMoves);
+    public WhitePlayer(final Board board) {
+        super(board);
     }
 
     @Override
@@ -35,15 +35,15 @@ public class WhitePlayer extends Player {
     }
 
     @Override
-    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals, final Collection<Move> opponentsLegal) {
+    protected Collection<Move> calculateKingCastles() {
         final List<Move> kingCastles = new ArrayList<>();
         if (this.playerKing.isFirstMove() && !this.isInCheck()) {
             //whites king side castle
-            if (!this.board.getTile(61).isTileOccupied() && !this.board.getTile(62).isTileOccupied()) {
+            if (!this.board.getBitBoard().isTileOccupied(61) && !this.board.getBitBoard().isTileOccupied(62)) {
                 final Tile rookTile = this.board.getTile(63);
                 if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
-                    if (Player.calculateAttacksOnTile(61, opponentsLegal).isEmpty() &&
-                        Player.calculateAttacksOnTile(62, opponentsLegal).isEmpty() &&
+                    if (!this.board.isSquareAttacked(61, Alliance.BLACK) &&
+                        !this.board.isSquareAttacked(62, Alliance.BLACK) &&
                         rookTile.getPiece().getPieceType().isRook()) {
                         kingCastles.add(new KingSideCastleMove(this.board,
                                                                 this.playerKing,
@@ -54,13 +54,13 @@ public class WhitePlayer extends Player {
                     }
                 }
             }
-            if (!this.board.getTile(59).isTileOccupied() &&
-                    !this.board.getTile(58).isTileOccupied() &&
-                    !this.board.getTile(57).isTileOccupied()) {
+            if (!this.board.getBitBoard().isTileOccupied(59) &&
+                    !this.board.getBitBoard().isTileOccupied(58) &&
+                    !this.board.getBitBoard().isTileOccupied(57)) {
                 final Tile rookTile = this.board.getTile(56);
                 if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove() &&
-                    Player.calculateAttacksOnTile(58, opponentsLegal).isEmpty() &&
-                    Player.calculateAttacksOnTile(59, opponentsLegal).isEmpty() &&
+                    !this.board.isSquareAttacked(58, Alliance.BLACK) &&
+                    !this.board.isSquareAttacked(59, Alliance.BLACK) &&
                     rookTile.getPiece().getPieceType().isRook()) {
                     kingCastles.add(new QueenSideCastleMove(this.board,
                                                             this.playerKing,
@@ -0,0 +1,495 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Observable;
+
+/**
+ * Fixed-depth alpha-beta search in negamax form: every score is seen from the side to move, so
+ * a child's score is negated on the way up. Bounds are fail-soft, a node returns the best score
+ * it found even when that lies outside its window.
+ * <p>
+ * The search is a principal variation search: only the first move of a node gets the full
+ * window, the others are searched with a null window around alpha and again in full only if
+ * they beat it. The line the search expects, its principal variation, is collected on the way.
+ */
+public class AlphaBeta extends Observable implements MoveStrategy {
+
+    //never produced by the evaluator, and safe to negate
+    static final int INFINITY = Integer.MAX_VALUE;
+    static final int NO_MOVE = -1;
+    static final int DRAW_SCORE = 0;
+    //how many nodes pass between two looks at the clock
+    private static final int NODES_PER_TIME_CHECK = 2048;
+    private static final int DEFAULT_TABLE_SIZE_MB = 16;
+    //a capture that cannot lift the score to within this of alpha is not searched in quiescence
+    private static final int DELTA_MARGIN = 200;
+    //null-move searches are this much shallower, one more ply from NULL_MOVE_DEEP_DEPTH on
+    private static final int NULL_MOVE_REDUCTION = 2;
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int NULL_MOVE_DEEP_DEPTH = 7;
+    //quiet moves after the first few are searched a ply shallower, two plies when very late
+    private static final int LMR_MIN_DEPTH = 3;
+    private static final int LMR_MIN_MOVES = 3;
+    private static final int LMR_DEEP_MOVES = 8;
+    //aspiration windows start this far either side of the previous iteration's score and grow
+    //fourfold on the side the score falls outside of
+    private static final int ASPIRATION_WINDOW = 25;
+    private static final int ASPIRATION_MIN_DEPTH = 4;
+    //scores this large only come from a mate, which moves too much between iterations to aspirate
+    private static final int ASPIRATION_MAX_SCORE = 9000;
+
+    private final BoardEvaluator boardEvaluator;
+    private final TranspositionTable transpositionTable;
+    private final int searchDepth;
+    private final MoveOrdering moveOrdering;
+    private final MovePicker[] movePickers;
+    //triangular table, row ply holds the best line found from that ply, up to pvLength[ply]
+    private final int[][] pvMoves;
+    private final int[] pvLength;
+    private long boardsEvaluated;
+    private long cutOffsProduced;
+    private long nullMoveCutOffs;
+    private long lateMoveReSearches;
+    private long pvReSearches;
+    private long aspirationReSearches;
+    private boolean nullMovePruning;
+    private boolean lateMoveReductions;
+    private long nodesSearched;
+    private long deadline;
+    private boolean stopped;
+    //set from another thread to end the search at the next clock check, whatever the deadline
+    private volatile boolean stopRequested;
+    private int rootValue;
+    private List<Move> principalVariation;
+
+    public AlphaBeta(final int searchDepth) {
+        this(searchDepth, new TranspositionTable(DEFAULT_TABLE_SIZE_MB));
+    }
+
+    public AlphaBeta(final int searchDepth, final TranspositionTable transpositionTable) {
+        this.boardEvaluator = StandardBoardEvaluator.get();
+        this.transpositionTable = transpositionTable;
+        this.searchDepth = Math.max(1, Math.min(searchDepth, IterativeDeepening.MAX_SEARCH_DEPTH));
+        this.moveOrdering = new MoveOrdering();
+        this.movePickers = new MovePicker[SearchBoard.MAX_PLY];
+        for (int i = 0; i < SearchBoard.MAX_PLY; i++) {
+            this.movePickers[i] = new MovePicker(this.moveOrdering);
+        }
+        this.pvMoves = new int[SearchBoard.MAX_PLY + 1][SearchBoard.MAX_PLY + 1];
+        this.pvLength = new int[SearchBoard.MAX_PLY + 1];
+        this.boardsEvaluated = 0;
+        this.cutOffsProduced = 0;
+        this.nullMoveCutOffs = 0;
+        this.lateMoveReSearches = 0;
+        this.pvReSearches = 0;
+        this.aspirationReSearches = 0;
+        this.nullMovePruning = true;
+        this.lateMoveReductions = true;
+        this.nodesSearched = 0;
+        this.deadline = Long.MAX_VALUE;
+        this.stopped = false;
+        this.stopRequested = false;
+        this.principalVariation = Collections.emptyList();
+    }
+
+    @Override
+    public String toString() {
+        return "AlphaBeta";
+    }
+
+    @Override
+    public long getNumBoardsEvaluated() {
+        return this.boardsEvaluated;
+    }
+
+    @Override
+    public long getNumTableProbes() {
+        return this.transpositionTable.getNumProbes();
+    }
+
+    @Override
+    public long getNumTableHits() {
+        return this.transpositionTable.getNumHits();
+    }
+
+    @Override
+    public List<Move> getPrincipalVariation() {
+        return this.principalVariation;
+    }
+
+    @Override
+    public void stop() {
+        requestStop();
+    }
+
+    @Override
+    public Move execute(final Board board) {
+        final long startTime = System.currentTimeMillis();
+        System.out.println(board.currentPlayer() + " thinking with depth = " + this.searchDepth);
+        newSearch();
+        setDeadline(Long.MAX_VALUE);
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final Move bestMove = Move.MoveFactory.createMove(board, searchRoot(searchBoard, this.searchDepth));
+        this.principalVariation = Move.MoveFactory.createMoves(board, getPrincipalVariation(searchBoard.getPly()));
+        final long executionTime = Math.max(1, System.currentTimeMillis() - startTime);
+        final String result = String.format("%s SELECTS %s [score: %d], boards evaluated = %d, cut-offs = %d, " +
+                        "null move cut-offs = %d, reduced re-searches = %d, pv re-searches = %d, table hits = %.1f%%, " +
+                        "time taken = %d ms, rate = %.1f", board.currentPlayer(), bestMove, this.rootValue,
+                this.boardsEvaluated, this.cutOffsProduced, this.nullMoveCutOffs, this.lateMoveReSearches, this.pvReSearches,
+                100 * this.transpositionTable.getHitRate(), executionTime,
+                (1000 * ((double) this.boardsEvaluated / executionTime)));
+        System.out.println(result);
+        setChanged();
+        notifyObservers(result);
+        clearStopRequest();
+        return bestMove;
+    }
+
+    /**
+     * Searches every root move to the given depth and returns the best one, its score is then
+     * available from {@link #getRootValue()}. Once the deadline has passed or a stop has been
+     * requested the search unwinds early, {@link #isStopped()} tells that the result is
+     * incomplete and the move returned is the best of the root moves searched in full.
+     */
+    int searchRoot(final SearchBoard board, final int depth) {
+        return searchRoot(board, depth, -INFINITY, INFINITY);
+    }
+
+    /**
+     * Searches the root within a window around the previous iteration's score, which cuts far
+     * more than a full window does. When the score falls outside, the search is repeated with
+     * the window widened on that side, ending with a full window if need be.
+     */
+    int aspirationSearch(final SearchBoard board, final int depth, final int previousValue) {
+        if (depth < ASPIRATION_MIN_DEPTH || Math.abs(previousValue) >= ASPIRATION_MAX_SCORE) {
+            return searchRoot(board, depth);
+        }
+        int alphaDelta = ASPIRATION_WINDOW;
+        int betaDelta = ASPIRATION_WINDOW;
+        while (true) {
+            final int alpha = alphaDelta >= ASPIRATION_MAX_SCORE ? -INFINITY : previousValue - alphaDelta;
+            final int beta = betaDelta >= ASPIRATION_MAX_SCORE ? INFINITY : previousValue + betaDelta;
+            final int bestMove = searchRoot(board, depth, alpha, beta);
+            if (this.stopped || bestMove == NO_MOVE || (this.rootValue > alpha && this.rootValue < beta)) {
+                return bestMove;
+            }
+            this.aspirationReSearches++;
+            if (this.rootValue <= alpha) {
+                alphaDelta *= 4;
+            } else {
+                betaDelta *= 4;
+            }
+        }
+    }
+
+    private int searchRoot(final SearchBoard board, final int depth, final int alpha, final int beta) {
+        final int ply = board.getPly();
+        this.pvLength[ply] = ply;
+        //the previous iteration's best move, when there was one, is searched first
+        final MovePicker movePicker = this.movePickers[ply];
+        movePicker.init(board, TranspositionTable.getMove(this.transpositionTable.probe(board.getZobristKey())));
+        int bestMove = NO_MOVE;
+        this.rootValue = -INFINITY;
+        int move;
+        while ((move = movePicker.nextMove()) != NO_MOVE) {
+            board.makeMove(move);
+            final int currentAlpha = Math.max(alpha, this.rootValue);
+            int currentValue;
+            if (bestMove == NO_MOVE) {
+                currentValue = -alphaBeta(board, depth - 1, -beta, -currentAlpha, true);
+            } else {
+                currentValue = -alphaBeta(board, depth - 1, -currentAlpha - 1, -currentAlpha, true);
+                if (currentValue > currentAlpha && currentValue < beta) {
+                    this.pvReSearches++;
+                    currentValue = -alphaBeta(board, depth - 1, -beta, -currentAlpha, true);
+                }
+            }
+            board.unmakeMove();
+            if (this.stopped) {
+                break;
+            }
+            if (currentValue > this.rootValue) {
+                this.rootValue = currentValue;
+                bestMove = move;
+                updatePrincipalVariation(ply, move);
+                if (this.rootValue >= beta) {
+                    break;
+                }
+            }
+        }
+        if (!this.stopped && bestMove != NO_MOVE) {
+            final int bound = this.rootValue >= beta ? TranspositionTable.LOWER_BOUND :
+                    this.rootValue > alpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+            this.transpositionTable.store(board.getZobristKey(), bestMove, this.rootValue, depth, bound);
+        }
+        return bestMove;
+    }
+
+    private int alphaBeta(final SearchBoard board,
+                          final int depth,
+                          final int alpha,
+                          final int beta,
+                          final boolean allowNullMove) {
+        final int ply = board.getPly();
+        this.pvLength[ply] = ply;
+        if (isTimeUp()) {
+            return 0;
+        }
+        if (depth == 0) {
+            return quiescence(board, alpha, beta);
+        }
+        //only nodes with an open window can be on the principal variation, the rest just refute;
+        //compared this way round so that a full window cannot overflow
+        final boolean pvNode = beta > alpha + 1;
+        final long zobristKey = board.getZobristKey();
+        final long entry = this.transpositionTable.probe(zobristKey);
+        final int hashMove = TranspositionTable.getMove(entry);
+        //a table cut-off would leave the principal variation without its continuation
+        if (!pvNode && entry != TranspositionTable.NO_ENTRY && TranspositionTable.getDepth(entry) >= depth) {
+            final int score = TranspositionTable.getScore(entry);
+            final int bound = TranspositionTable.getBound(entry);
+            if (bound == TranspositionTable.EXACT ||
+                    (bound == TranspositionTable.LOWER_BOUND && score >= beta) ||
+                    (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                return score;
+            }
+        }
+        final boolean inCheck = board.isInCheck();
+        //if passing the turn still fails high, a real move would too; not tried twice in a row,
+        //in check, or with only pawns left, where passing may be the best there is (zugzwang)
+        if (this.nullMovePruning && allowNullMove && !pvNode && !inCheck && depth >= NULL_MOVE_MIN_DEPTH &&
+                hasPiecesBesidesPawns(board)) {
+            final int reduction = depth >= NULL_MOVE_DEEP_DEPTH ? NULL_MOVE_REDUCTION + 1 : NULL_MOVE_REDUCTION;
+            board.makeNullMove();
+            final int nullMoveValue = -alphaBeta(board, Math.max(0, depth - 1 - reduction), -beta, -beta + 1, false);
+            board.unmakeNullMove();
+            //the reduced search proves no mate, so the bound it gives is not passed up as a score
+            if (nullMoveValue >= beta && !this.stopped) {
+                this.nullMoveCutOffs++;
+                return beta;
+            }
+        }
+        final MovePicker movePicker = this.movePickers[ply];
+        movePicker.init(board, hashMove);
+        int bestValue = -INFINITY;
+        int bestMove = NO_MOVE;
+        int movesSearched = 0;
+        int move;
+        while ((move = movePicker.nextMove()) != NO_MOVE) {
+            board.makeMove(move);
+            final int currentAlpha = Math.max(alpha, bestValue);
+            int currentValue;
+            if (movesSearched == 0) {
+                currentValue = -alphaBeta(board, depth - 1, -beta, -currentAlpha, true);
+            } else {
+                //a later move only has to be shown no better than the best so far, which a null
+                //window does cheaply; late quiet moves are tried a ply or two shallower first
+                int reduction = 0;
+                if (this.lateMoveReductions && depth >= LMR_MIN_DEPTH && movesSearched >= LMR_MIN_MOVES && !inCheck &&
+                        !SearchBoard.isCaptureOrPromotion(move) && !this.moveOrdering.isKiller(move, ply) &&
+                        !board.isInCheck()) {
+                    reduction = movesSearched >= LMR_DEEP_MOVES && depth > LMR_MIN_DEPTH ? 2 : 1;
+                }
+                currentValue = -alphaBeta(board, depth - 1 - reduction, -currentAlpha - 1, -currentAlpha, true);
+                if (currentValue > currentAlpha && reduction > 0) {
+                    this.lateMoveReSearches++;
+                    currentValue = -alphaBeta(board, depth - 1, -currentAlpha - 1, -currentAlpha, true);
+                }
+                //it may be better after all, only the full window tells by how much
+                if (currentValue > currentAlpha && currentValue < beta) {
+                    this.pvReSearches++;
+                    currentValue = -alphaBeta(board, depth - 1, -beta, -currentAlpha, true);
+                }
+            }
+            board.unmakeMove();
+            //what the stopped move returned is no score, it must neither cut off nor teach the ordering
+            if (this.stopped) {
+                break;
+            }
+            movesSearched++;
+            if (currentValue > bestValue) {
+                bestValue = currentValue;
+                bestMove = move;
+                if (pvNode && bestValue > currentAlpha) {
+                    updatePrincipalVariation(ply, move);
+                }
+                if (bestValue >= beta) {
+                    this.cutOffsProduced++;
+                    if (!SearchBoard.isCaptureOrPromotion(move)) {
+                        this.moveOrdering.recordCutOff(board.getSideToMove(), move, board.getPly(), depth);
+                    }
+                    break;
+                }
+            }
+        }
+        //checkmated, the evaluator scores the mate; stalemate is a draw, which the evaluator
+        //would score as material with the opponent's mobility gone
+        if (bestMove == NO_MOVE && !this.stopped) {
+            return inCheck ? evaluate(board, depth) : DRAW_SCORE;
+        }
+        //an unfinished search is missing moves, its score must not be cached
+        if (!this.stopped) {
+            final int bound = bestValue >= beta ? TranspositionTable.LOWER_BOUND :
+                    bestValue > alpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+            this.transpositionTable.store(zobristKey, bestMove, bestValue, depth, bound);
+        }
+        return bestValue;
+    }
+
+    /**
+     * Searches captures and promotions only, until the position is quiet enough for the
+     * evaluator to be trusted. The side to move may stand pat on the static score instead of
+     * capturing, unless it is in check, in which case every evasion is searched.
+     */
+    private int quiescence(final SearchBoard board, final int alpha, final int beta) {
+        if (isTimeUp()) {
+            return 0;
+        }
+        if (board.getPly() >= SearchBoard.MAX_PLY - 1) {
+            return evaluate(board, 0);
+        }
+        final boolean inCheck = board.isInCheck();
+        final MovePicker movePicker = this.movePickers[board.getPly()];
+        int bestValue = -INFINITY;
+        int standPat = -INFINITY;
+        if (inCheck) {
+            movePicker.init(board, NO_MOVE);
+        } else {
+            standPat = evaluate(board, 0);
+            if (standPat >= beta) {
+                return standPat;
+            }
+            bestValue = standPat;
+            movePicker.initCaptures(board);
+        }
+        boolean hasMoves = false;
+        int move;
+        while ((move = movePicker.nextMove()) != NO_MOVE) {
+            hasMoves = true;
+            //delta pruning: even winning the piece outright would leave the score below alpha
+            if (!inCheck && standPat + MoveOrdering.materialGain(board, move) + DELTA_MARGIN <= alpha) {
+                continue;
+            }
+            board.makeMove(move);
+            final int currentValue = -quiescence(board, -beta, -Math.max(alpha, bestValue));
+            board.unmakeMove();
+            if (currentValue > bestValue) {
+                bestValue = currentValue;
+                if (bestValue >= beta) {
+                    break;
+                }
+            }
+        }
+        //checkmated, the evaluator scores the mate
+        if (inCheck && !hasMoves) {
+            return evaluate(board, 0);
+        }
+        return bestValue;
+    }
+
+    //the move, followed by the line the search found below it
+    private void updatePrincipalVariation(final int ply, final int move) {
+        final int childLength = Math.max(this.pvLength[ply + 1], ply + 1);
+        this.pvMoves[ply][ply] = move;
+        System.arraycopy(this.pvMoves[ply + 1], ply + 1, this.pvMoves[ply], ply + 1, childLength - ply - 1);
+        this.pvLength[ply] = childLength;
+    }
+
+    private static boolean hasPiecesBesidesPawns(final SearchBoard board) {
+        final Alliance alliance = board.getSideToMove();
+        return (board.getOccupancy(alliance) & ~board.getPieces(alliance, PieceType.PAWN) &
+                ~board.getPieces(alliance, PieceType.KING)) != BitBoard.EMPTY;
+    }
+
+    private boolean isTimeUp() {
+        if (!this.stopped && ++this.nodesSearched % NODES_PER_TIME_CHECK == 0 &&
+                (this.stopRequested || System.currentTimeMillis() >= this.deadline)) {
+            this.stopped = true;
+        }
+        return this.stopped;
+    }
+
+    //the evaluator scores from white's side, negamax wants the side to move's
+    private int evaluate(final SearchBoard board, final int depth) {
+        this.boardsEvaluated++;
+        final int score = this.boardEvaluator.evaluate(board, depth);
+        return board.getSideToMove().isWhite() ? score : -score;
+    }
+
+    //null-move pruning and late move reductions are on by default, switchable for benchmarking
+    public void setNullMovePruning(final boolean nullMovePruning) {
+        this.nullMovePruning = nullMovePruning;
+    }
+
+    public void setLateMoveReductions(final boolean lateMoveReductions) {
+        this.lateMoveReductions = lateMoveReductions;
+    }
+
+    //ages what earlier searches left behind before searching a new position
+    void newSearch() {
+        this.transpositionTable.newSearch();
+        resetMoveOrdering();
+    }
+
+    //for searchers sharing a table, which is aged once for all of them
+    void resetMoveOrdering() {
+        this.moveOrdering.newSearch();
+    }
+
+    /**
+     * Searches the position below a root move, for strategies that split the root themselves.
+     * The score is from the view of the side to move in the given board.
+     */
+    int search(final SearchBoard board, final int depth, final int alpha, final int beta) {
+        return alphaBeta(board, depth, alpha, beta, true);
+    }
+
+    //the wall-clock time, in milliseconds, after which searchRoot gives up
+    void setDeadline(final long deadline) {
+        this.deadline = deadline;
+        this.stopped = false;
+    }
+
+    //unlike the deadline, a stop request holds until it is cleared
+    void requestStop() {
+        this.stopRequested = true;
+    }
+
+    void clearStopRequest() {
+        this.stopRequested = false;
+    }
+
+    boolean isStopped() {
+        return this.stopped;
+    }
+
+    //the line the last search expects from the given ply on, the root's when given the root ply
+    int[] getPrincipalVariation(final int ply) {
+        return Arrays.copyOfRange(this.pvMoves[ply], ply, this.pvLength[ply]);
+    }
+
+    long getAspirationReSearches() {
+        return this.aspirationReSearches;
+    }
+
+    int getRootValue() {
+        return this.rootValue;
+    }
+
+    TranspositionTable getTranspositionTable() {
+        return this.transpositionTable;
+    }
+
+    long getNodesSearched() {
+        return this.nodesSearched;
+    }
+}
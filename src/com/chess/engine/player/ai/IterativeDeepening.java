@@ -0,0 +1,130 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.SearchBoard;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Observable;
+
+/**
+ * Runs {@link AlphaBeta} to depth 1, 2, 3... until the time for the move is used up or the
+ * maximum depth is reached, and plays the best move of the deepest iteration that finished.
+ * The iteration running when time expires is abandoned, except that depth 1 always completes so
+ * there is a move to play. A {@link #stop()} abandons the running iteration as well; when that
+ * is the first, the best of the root moves it finished is played. From the fourth ply on each
+ * iteration searches within an aspiration window around the score of the one before.
+ */
+public class IterativeDeepening extends Observable implements MoveStrategy {
+
+    //leaves room on the board's move stack for whatever the search adds beyond the nominal depth
+    static final int MAX_SEARCH_DEPTH = SearchBoard.MAX_PLY / 2;
+
+    private final AlphaBeta alphaBeta;
+    private final int maxDepth;
+    private final long moveTimeMillis;
+    private List<Move> principalVariation;
+
+    public IterativeDeepening(final int maxDepth, final long moveTimeMillis) {
+        this(maxDepth, moveTimeMillis, new AlphaBeta(maxDepth));
+    }
+
+    //shares the table with earlier searches, so a new move starts from what they found
+    public IterativeDeepening(final int maxDepth, final long moveTimeMillis, final TranspositionTable transpositionTable) {
+        this(maxDepth, moveTimeMillis, new AlphaBeta(maxDepth, transpositionTable));
+    }
+
+    private IterativeDeepening(final int maxDepth, final long moveTimeMillis, final AlphaBeta alphaBeta) {
+        this.alphaBeta = alphaBeta;
+        this.maxDepth = Math.max(1, Math.min(maxDepth, MAX_SEARCH_DEPTH));
+        this.moveTimeMillis = moveTimeMillis;
+        this.principalVariation = Collections.emptyList();
+    }
+
+    @Override
+    public String toString() {
+        return "IterativeDeepening";
+    }
+
+    @Override
+    public long getNumBoardsEvaluated() {
+        return this.alphaBeta.getNumBoardsEvaluated();
+    }
+
+    @Override
+    public long getNumTableProbes() {
+        return this.alphaBeta.getNumTableProbes();
+    }
+
+    @Override
+    public long getNumTableHits() {
+        return this.alphaBeta.getNumTableHits();
+    }
+
+    @Override
+    public List<Move> getPrincipalVariation() {
+        return this.principalVariation;
+    }
+
+    @Override
+    public void stop() {
+        this.alphaBeta.requestStop();
+    }
+
+    public void setNullMovePruning(final boolean nullMovePruning) {
+        this.alphaBeta.setNullMovePruning(nullMovePruning);
+    }
+
+    public void setLateMoveReductions(final boolean lateMoveReductions) {
+        this.alphaBeta.setLateMoveReductions(lateMoveReductions);
+    }
+
+    @Override
+    public Move execute(final Board board) {
+        final long startTime = System.currentTimeMillis();
+        final SearchBoard searchBoard = new SearchBoard(board);
+        System.out.println(board.currentPlayer() + " thinking for " + this.moveTimeMillis + " ms, up to depth " + this.maxDepth);
+        final TranspositionTable transpositionTable = this.alphaBeta.getTranspositionTable();
+        this.alphaBeta.newSearch();
+        int bestMove = AlphaBeta.NO_MOVE;
+        int bestValue = 0;
+        int completedDepth = 0;
+        List<Move> principalVariation = Collections.emptyList();
+        for (int depth = 1; depth <= this.maxDepth; depth++) {
+            this.alphaBeta.setDeadline(depth == 1 ? Long.MAX_VALUE : startTime + this.moveTimeMillis);
+            final int move = this.alphaBeta.aspirationSearch(searchBoard, depth, bestValue);
+            if (move == AlphaBeta.NO_MOVE || (this.alphaBeta.isStopped() && completedDepth > 0)) {
+                break;
+            }
+            bestMove = move;
+            bestValue = this.alphaBeta.getRootValue();
+            completedDepth = depth;
+            principalVariation = Move.MoveFactory.createMoves(board,
+                    this.alphaBeta.getPrincipalVariation(searchBoard.getPly()));
+            final String s = "\t" + toString() + " depth " + depth + ", best: " +
+                    Move.MoveFactory.createMove(board, bestMove) + " [score: " + bestValue + "], pv = " +
+                    principalVariation + ", nodes = " + this.alphaBeta.getNodesSearched() + ", time = " +
+                    (System.currentTimeMillis() - startTime) + " ms";
+            setChanged();
+            notifyObservers(s);
+            if (this.alphaBeta.isStopped() || System.currentTimeMillis() - startTime >= this.moveTimeMillis) {
+                break;
+            }
+        }
+        this.alphaBeta.clearStopRequest();
+        final Move selectedMove = Move.MoveFactory.createMove(board, bestMove);
+        this.principalVariation = principalVariation;
+        final long executionTime = Math.max(1, System.currentTimeMillis() - startTime);
+        final String result = String.format("%s SELECTS %s [score: %d] at depth %d, boards evaluated = %d, " +
+                        "aspiration re-searches = %d, table hits = %.1f%%, table fill = %.1f%%, time taken = %d ms, " +
+                        "rate = %.1f", board.currentPlayer(), selectedMove, bestValue, completedDepth,
+                this.alphaBeta.getNumBoardsEvaluated(), this.alphaBeta.getAspirationReSearches(),
+                100 * transpositionTable.getHitRate(), 100 * transpositionTable.getFillRate(), executionTime,
+                (1000 * ((double) this.alphaBeta.getNumBoardsEvaluated() / executionTime)));
+        System.out.println(result);
+        setChanged();
+        notifyObservers(result);
+        return selectedMove;
+    }
+}
@@ -0,0 +1,200 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.SearchBoard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Observable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lazy SMP: the calling thread deepens iteratively as {@link IterativeDeepening} does while
+ * helper threads from a {@link ForkJoinPool} deepen on the same root, every other helper one ply
+ * ahead. The threads do not divide the tree between them, they only share the transposition
+ * table, so each one finds the others' results there and skips work or orders its moves better.
+ * The move played is the best of the deepest iteration any thread completed.
+ */
+public class LazySmp extends Observable implements MoveStrategy {
+
+    private final ForkJoinPool pool;
+    private final TranspositionTable transpositionTable;
+    private final int maxDepth;
+    private final long moveTimeMillis;
+    //one per thread, a searcher's board, move lists and ordering tables are never shared
+    private final AlphaBeta mainSearcher;
+    private final AlphaBeta[] helpers;
+    //every searcher adds its boards after each iteration, their own counters are not thread-safe
+    private final LongAdder boardsEvaluated;
+    private int bestMove;
+    private int bestValue;
+    private int completedDepth;
+    private int[] bestLine;
+    private List<Move> principalVariation;
+
+    public LazySmp(final int maxDepth,
+                   final long moveTimeMillis,
+                   final TranspositionTable transpositionTable,
+                   final ForkJoinPool pool) {
+        this.pool = pool;
+        this.transpositionTable = transpositionTable;
+        this.maxDepth = Math.max(1, Math.min(maxDepth, IterativeDeepening.MAX_SEARCH_DEPTH));
+        this.moveTimeMillis = moveTimeMillis;
+        this.mainSearcher = new AlphaBeta(this.maxDepth, transpositionTable);
+        //the calling thread is the first of the pool's worth of threads
+        this.helpers = new AlphaBeta[pool.getParallelism() - 1];
+        for (int i = 0; i < this.helpers.length; i++) {
+            this.helpers[i] = new AlphaBeta(this.maxDepth, transpositionTable);
+        }
+        this.boardsEvaluated = new LongAdder();
+        this.principalVariation = Collections.emptyList();
+    }
+
+    @Override
+    public String toString() {
+        return "LazySmp";
+    }
+
+    @Override
+    public long getNumBoardsEvaluated() {
+        return this.boardsEvaluated.sum();
+    }
+
+    @Override
+    public long getNumTableProbes() {
+        return this.transpositionTable.getNumProbes();
+    }
+
+    @Override
+    public long getNumTableHits() {
+        return this.transpositionTable.getNumHits();
+    }
+
+    @Override
+    public List<Move> getPrincipalVariation() {
+        return this.principalVariation;
+    }
+
+    @Override
+    public void stop() {
+        this.mainSearcher.requestStop();
+        for (final AlphaBeta helper : this.helpers) {
+            helper.requestStop();
+        }
+    }
+
+    @Override
+    public Move execute(final Board board) {
+        final long startTime = System.currentTimeMillis();
+        final long deadline = startTime + this.moveTimeMillis;
+        System.out.println(board.currentPlayer() + " thinking for " + this.moveTimeMillis + " ms, up to depth " +
+                this.maxDepth + " on " + (this.helpers.length + 1) + " threads");
+        this.transpositionTable.newSearch();
+        this.bestMove = AlphaBeta.NO_MOVE;
+        this.bestValue = 0;
+        this.completedDepth = 0;
+        this.bestLine = new int[0];
+        final List<ForkJoinTask<?>> helperTasks = new ArrayList<>();
+        for (int i = 0; i < this.helpers.length; i++) {
+            final AlphaBeta helper = this.helpers[i];
+            final int firstDepth = 1 + (i + 1) % 2;
+            helper.resetMoveOrdering();
+            helperTasks.add(this.pool.submit(() -> runHelper(helper, board, firstDepth, deadline)));
+        }
+        final SearchBoard searchBoard = new SearchBoard(board);
+        this.mainSearcher.resetMoveOrdering();
+        for (int depth = 1; depth <= this.maxDepth; depth++) {
+            this.mainSearcher.setDeadline(depth == 1 ? Long.MAX_VALUE : deadline);
+            final int move = searchIteration(this.mainSearcher, searchBoard, depth, getBestValue());
+            //once stopped, the main searcher returns the best root move it searched in full; that
+            //is recorded only while no thread has completed a depth, otherwise theirs stands
+            if (move == AlphaBeta.NO_MOVE || (this.mainSearcher.isStopped() && getCompletedDepth() > 0)) {
+                break;
+            }
+            recordResult(depth, move, this.mainSearcher.getRootValue(),
+                    this.mainSearcher.getPrincipalVariation(searchBoard.getPly()));
+            final String s = "\t" + toString() + " depth " + getCompletedDepth() + ", best: " +
+                    Move.MoveFactory.createMove(board, getBestMove()) + " [score: " + getBestValue() + "], boards = " +
+                    getNumBoardsEvaluated() + ", time = " + (System.currentTimeMillis() - startTime) + " ms";
+            setChanged();
+            notifyObservers(s);
+            if (this.mainSearcher.isStopped() || System.currentTimeMillis() >= deadline) {
+                break;
+            }
+            //a helper already finished deeper, carry on from there
+            depth = Math.max(depth, getCompletedDepth());
+        }
+        for (final AlphaBeta helper : this.helpers) {
+            helper.requestStop();
+        }
+        for (final ForkJoinTask<?> helperTask : helperTasks) {
+            helperTask.join();
+        }
+        this.mainSearcher.clearStopRequest();
+        for (final AlphaBeta helper : this.helpers) {
+            helper.clearStopRequest();
+        }
+        final Move selectedMove = Move.MoveFactory.createMove(board, this.bestMove);
+        this.principalVariation = Move.MoveFactory.createMoves(board, this.bestLine);
+        final long executionTime = Math.max(1, System.currentTimeMillis() - startTime);
+        final String result = String.format("%s SELECTS %s [score: %d] at depth %d on %d threads, boards evaluated = %d, " +
+                        "table hits = %.1f%%, table fill = %.1f%%, time taken = %d ms, rate = %.1f", board.currentPlayer(),
+                selectedMove, this.bestValue, this.completedDepth, this.helpers.length + 1, getNumBoardsEvaluated(),
+                100 * this.transpositionTable.getHitRate(), 100 * this.transpositionTable.getFillRate(), executionTime,
+                (1000 * ((double) getNumBoardsEvaluated() / executionTime)));
+        System.out.println(result);
+        setChanged();
+        notifyObservers(result);
+        return selectedMove;
+    }
+
+    private void runHelper(final AlphaBeta helper, final Board board, final int firstDepth, final long deadline) {
+        final SearchBoard searchBoard = new SearchBoard(board);
+        helper.setDeadline(deadline);
+        int previousValue = 0;
+        for (int depth = firstDepth; depth <= this.maxDepth; depth++) {
+            final int move = searchIteration(helper, searchBoard, depth, previousValue);
+            if (helper.isStopped() || move == AlphaBeta.NO_MOVE) {
+                return;
+            }
+            previousValue = helper.getRootValue();
+            recordResult(depth, move, previousValue, helper.getPrincipalVariation(searchBoard.getPly()));
+        }
+    }
+
+    private int searchIteration(final AlphaBeta searcher,
+                                final SearchBoard searchBoard,
+                                final int depth,
+                                final int previousValue) {
+        final long boardsBefore = searcher.getNumBoardsEvaluated();
+        final int move = searcher.aspirationSearch(searchBoard, depth, previousValue);
+        this.boardsEvaluated.add(searcher.getNumBoardsEvaluated() - boardsBefore);
+        return move;
+    }
+
+    //the first thread to complete a depth sets the result for it
+    private synchronized void recordResult(final int depth, final int move, final int value, final int[] line) {
+        if (depth > this.completedDepth) {
+            this.completedDepth = depth;
+            this.bestMove = move;
+            this.bestValue = value;
+            this.bestLine = line;
+        }
+    }
+
+    private synchronized int getCompletedDepth() {
+        return this.completedDepth;
+    }
+
+    private synchronized int getBestMove() {
+        return this.bestMove;
+    }
+
+    private synchronized int getBestValue() {
+        return this.bestValue;
+    }
+}
@@ -2,19 +2,31 @@ package com.chess.engine.player.ai;
 
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
-import com.chess.engine.player.MoveTransition;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.SearchBoard;
 import com.chess.engine.player.Player;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Observable;
 
 public class MiniMax extends Observable implements MoveStrategy {
     private final BoardEvaluator boardEvaluator;
     private final int searchDepth;
+    private final MoveList[] moveLists;
     private long boardsEvaluated;
+    private List<Move> principalVariation;
+    private volatile boolean stopRequested;
     public MiniMax(final int searchDepth) {
         this.boardEvaluator = new StandardBoardEvaluator();
-        this.searchDepth = searchDepth;
+        this.searchDepth = Math.max(1, Math.min(searchDepth, IterativeDeepening.MAX_SEARCH_DEPTH));
+        this.moveLists = new MoveList[this.searchDepth + 1];
+        for (int i = 0; i <= this.searchDepth; i++) {
+            this.moveLists[i] = new MoveList();
+        }
         this.boardsEvaluated = 0;
+        this.principalVariation = Collections.emptyList();
+        this.stopRequested = false;
     }
     @Override
     public String toString() {
@@ -25,46 +37,71 @@ public class MiniMax extends Observable implements MoveStrategy {
         return this.boardsEvaluated;
     }
     @Override
+    public long getNumTableProbes() {
+        return 0;
+    }
+    @Override
+    public long getNumTableHits() {
+        return 0;
+    }
+    //only the root move, the replies below it are not kept
+    @Override
+    public List<Move> getPrincipalVariation() {
+        return this.principalVariation;
+    }
+    //the root moves searched in full are kept, the one interrupted is dropped; when there are
+    //none the first legal move is played
+    @Override
+    public void stop() {
+        this.stopRequested = true;
+    }
+    @Override
     public Move execute(Board board) {
         final long startTime = System.currentTimeMillis();
-        Move bestMove = Move.MoveFactory.getNullMove();;
+        final SearchBoard searchBoard = new SearchBoard(board);
         final Player currentPlayer = board.currentPlayer();
         int highestSeenValue = Integer.MIN_VALUE;
         int lowestSeenValue = Integer.MAX_VALUE;
         int currentValue;
         int moveCounter = 1;
-        int numMoves = board.currentPlayer().getLegalMoves().size();
+        final MoveList moves = this.moveLists[this.searchDepth];
+        final int numMoves = searchBoard.generateMoves(moves);
+        //a stop before the first root move is searched in full still has a legal move to play
+        Move bestMove = numMoves > 0 ? Move.MoveFactory.createMove(board, moves.get(0)) : Move.MoveFactory.getNullMove();
         System.out.println(board.currentPlayer() + "Thinking with depth = " + this.searchDepth);
-        for (final Move move: board.currentPlayer().getLegalMoves()) {
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            final String s;
-            if (moveTransition.getMoveStatus().isDone()) {
-                currentValue = board.currentPlayer().getAlliance().isWhite() ?
-                        min(moveTransition.getTransitionBoard(), this.searchDepth - 1) :
-                        max(moveTransition.getTransitionBoard(), this.searchDepth - 1);
-                if (board.currentPlayer().getAlliance().isWhite() && currentValue >= highestSeenValue) {
-                    highestSeenValue = currentValue;
-                    bestMove = move;
-                } else if (board.currentPlayer().getAlliance().isBlack() && currentValue <= lowestSeenValue) {
-                    lowestSeenValue = currentValue;
-                    bestMove = move;
-                }
-                final String quiescenceInfo = " " + score(currentPlayer, highestSeenValue, lowestSeenValue) ;
-                s = "\t" + toString() + "(" +this.searchDepth+ "), m: (" +moveCounter+ "/" +numMoves+ ") " + move + ", best:  " + bestMove + quiescenceInfo ;
-            } else {
-                s = "\t" + toString() + "(" +this.searchDepth + ")" + ", m: (" +moveCounter+ "/" +numMoves+ ") " + move + " is illegal! best: " +bestMove;
+        for (int i = 0; i < numMoves; i++) {
+            final Move move = Move.MoveFactory.createMove(board, moves.get(i));
+            searchBoard.makeMove(moves.get(i));
+            currentValue = currentPlayer.getAlliance().isWhite() ?
+                    min(searchBoard, this.searchDepth - 1) :
+                    max(searchBoard, this.searchDepth - 1);
+            searchBoard.unmakeMove();
+            if (this.stopRequested) {
+                break;
             }
+            if (currentPlayer.getAlliance().isWhite() && currentValue >= highestSeenValue) {
+                highestSeenValue = currentValue;
+                bestMove = move;
+            } else if (currentPlayer.getAlliance().isBlack() && currentValue <= lowestSeenValue) {
+                lowestSeenValue = currentValue;
+                bestMove = move;
+            }
+            final String quiescenceInfo = " " + score(currentPlayer, highestSeenValue, lowestSeenValue) ;
+            final String s = "\t" + toString() + "(" +this.searchDepth+ "), m: (" +moveCounter+ "/" +numMoves+ ") " + move + ", best:  " + bestMove + quiescenceInfo ;
             setChanged();
             notifyObservers(s);
             moveCounter++;
         }
+        this.stopRequested = false;
         final long executionTime = System.currentTimeMillis() - startTime;
         final String result = board.currentPlayer() + " SELECTS " + bestMove +
                 " time taken = " + executionTime /1000+ " rate = " +(1000 * ((double)this.boardsEvaluated/ executionTime));
         System.out.printf("%s SELECTS %s, time taken = %d ms, rate = %.1f\n", board.currentPlayer(),
-                bestMove, this.boardsEvaluated, executionTime, (1000 * ((double)this.boardsEvaluated/ executionTime)));
+                bestMove, executionTime, (1000 * ((double)this.boardsEvaluated/ executionTime)));
         setChanged();
         notifyObservers(result);
+        this.principalVariation = bestMove == Move.MoveFactory.getNullMove() ?
+                Collections.emptyList() : Collections.singletonList(bestMove);
         return bestMove;
     }
 
@@ -79,40 +116,47 @@ public class MiniMax extends Observable implements MoveStrategy {
         }
         throw new RuntimeException("bad bad boy!");
     }
-    public int min(final Board board, final int depth) {
+    public int min(final SearchBoard board, final int depth) {
+        if (this.stopRequested) {
+            return 0;
+        }
         if (depth == 0 || isEndGameScenario(board)) {
             this.boardsEvaluated++;
             return this.boardEvaluator.evaluate(board, depth);
         }
         int lowestSeenValue = Integer.MAX_VALUE;
-        for (final Move move:board.currentPlayer().getLegalMoves()) {
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                final int currentValue = max(moveTransition.getTransitionBoard(), depth - 1);
-                if (currentValue <= lowestSeenValue) {
-                    lowestSeenValue = currentValue;
-                }
+        final MoveList moves = this.moveLists[depth];
+        final int numMoves = board.generateMoves(moves);
+        for (int i = 0; i < numMoves; i++) {
+            board.makeMove(moves.get(i));
+            final int currentValue = max(board, depth - 1);
+            board.unmakeMove();
+            if (currentValue <= lowestSeenValue) {
+                lowestSeenValue = currentValue;
             }
         }
         return lowestSeenValue;
     }
-    private static boolean isEndGameScenario(final Board board) {
-        return board.currentPlayer().isInCheckMate() ||
-                board.currentPlayer().isInStaleMate();
+    private static boolean isEndGameScenario(final SearchBoard board) {
+        return !board.hasLegalMoves();
     }
-    public int max(final Board board, final int depth) {
+    public int max(final SearchBoard board, final int depth) {
+        if (this.stopRequested) {
+            return 0;
+        }
         if (depth == 0 || isEndGameScenario(board)) {
             this.boardsEvaluated++;
             return this.boardEvaluator.evaluate(board, depth);
         }
         int highestSeenValue = Integer.MIN_VALUE;
-        for (final Move move:board.currentPlayer().getLegalMoves()) {
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                final int currentValue = min(moveTransition.getTransitionBoard(), depth - 1);
-                if (currentValue <= highestSeenValue) {
-                    highestSeenValue = currentValue;
-                }
+        final MoveList moves = this.moveLists[depth];
+        final int numMoves = board.generateMoves(moves);
+        for (int i = 0; i < numMoves; i++) {
+            board.makeMove(moves.get(i));
+            final int currentValue = min(board, depth - 1);
+            board.unmakeMove();
+            if (currentValue >= highestSeenValue) {
+                highestSeenValue = currentValue;
             }
         }
         return highestSeenValue;
@@ -0,0 +1,114 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * What a search learns about good moves while it runs, used to try likely cut-off moves first.
+ * Captures are ranked by the value of the victim and then of the attacker (MVV-LVA), quiet
+ * moves by the two killer moves of their ply and by a history table of quiet moves that caused
+ * cut-offs anywhere in the tree.
+ */
+final class MoveOrdering {
+
+    static final int KILLER_SCORE = 1 << 30;
+    private static final int MAX_HISTORY_SCORE = 1 << 20;
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private final int[][] killerMoves;
+    private final int[][][] historyScores;
+
+    MoveOrdering() {
+        this.killerMoves = new int[SearchBoard.MAX_PLY][2];
+        this.historyScores = new int[2][BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+        clearKillers();
+    }
+
+    /**
+     * Forgets the killers, which belong to the plies of another position, and halves the history
+     * so it favours what the new search finds.
+     */
+    void newSearch() {
+        clearKillers();
+        ageHistory();
+    }
+
+    private void clearKillers() {
+        for (final int[] killers : this.killerMoves) {
+            killers[0] = AlphaBeta.NO_MOVE;
+            killers[1] = AlphaBeta.NO_MOVE;
+        }
+    }
+
+    private void ageHistory() {
+        for (final int[][] allianceScores : this.historyScores) {
+            for (final int[] sourceScores : allianceScores) {
+                for (int i = 0; i < sourceScores.length; i++) {
+                    sourceScores[i] /= 2;
+                }
+            }
+        }
+    }
+
+    //victims by value, then the cheapest attacker; a promotion adds the new piece's value
+    static int scoreCapture(final SearchBoard board, final int move) {
+        final int attacker = board.getPieceIndex(SearchBoard.getSource(move)) % BitBoard.NUM_PIECE_TYPES;
+        int score = victimValue(board, move);
+        if (SearchBoard.isPromotion(move)) {
+            score += SearchBoard.getPromotionType(move).getPieceValue();
+        }
+        return score * BitBoard.NUM_PIECE_TYPES - attacker;
+    }
+
+    //the most material a capture or promotion can win
+    static int materialGain(final SearchBoard board, final int move) {
+        final int gain = victimValue(board, move);
+        return SearchBoard.isPromotion(move) ?
+                gain + SearchBoard.getPromotionType(move).getPieceValue() - PieceType.PAWN.getPieceValue() : gain;
+    }
+
+    private static int victimValue(final SearchBoard board, final int move) {
+        if (!SearchBoard.isCapture(move)) {
+            return 0;
+        }
+        final int victimIndex = board.getPieceIndex(SearchBoard.getDestination(move));
+        //en passant lands on an empty tile, the victim is a pawn
+        return victimIndex == SearchBoard.NO_PIECE ? PieceType.PAWN.getPieceValue() :
+                PIECE_TYPES[victimIndex % BitBoard.NUM_PIECE_TYPES].getPieceValue();
+    }
+
+    boolean isKiller(final int move, final int ply) {
+        return move == this.killerMoves[ply][0] || move == this.killerMoves[ply][1];
+    }
+
+    int scoreQuietMove(final Alliance alliance, final int move, final int ply) {
+        if (move == this.killerMoves[ply][0]) {
+            return KILLER_SCORE;
+        }
+        if (move == this.killerMoves[ply][1]) {
+            return KILLER_SCORE - 1;
+        }
+        return this.historyScores[alliance.ordinal()][SearchBoard.getSource(move)][SearchBoard.getDestination(move)];
+    }
+
+    /**
+     * Remembers a quiet move that failed high, as a killer of its ply and in the history table,
+     * deeper cut-offs weighing more.
+     */
+    void recordCutOff(final Alliance alliance, final int move, final int ply, final int depth) {
+        final int[] killers = this.killerMoves[ply];
+        if (killers[0] != move) {
+            killers[1] = killers[0];
+            killers[0] = move;
+        }
+        final int[] sourceScores = this.historyScores[alliance.ordinal()][SearchBoard.getSource(move)];
+        sourceScores[SearchBoard.getDestination(move)] += depth * depth;
+        //the killers still belong to this search, only the history is scaled down
+        if (sourceScores[SearchBoard.getDestination(move)] > MAX_HISTORY_SCORE) {
+            ageHistory();
+        }
+    }
+}
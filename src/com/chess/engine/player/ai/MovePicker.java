@@ -0,0 +1,124 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.SearchBoard;
+
+/**
+ * Hands out the moves of one node best first, generating them in stages so that a node cut off
+ * early never pays for the later ones: the hash move, then captures and promotions by MVV-LVA,
+ * then quiet moves by killers and history. The search keeps one picker per ply.
+ */
+final class MovePicker {
+
+    private static final int HASH_MOVE = 0;
+    private static final int GENERATE_CAPTURES = 1;
+    private static final int CAPTURES = 2;
+    private static final int GENERATE_QUIET_MOVES = 3;
+    private static final int QUIET_MOVES = 4;
+    private static final int DONE = 5;
+
+    private final MoveOrdering moveOrdering;
+    private final MoveList moves;
+    private final int[] scores;
+    private SearchBoard board;
+    private int hashMove;
+    private boolean capturesOnly;
+    private int ply;
+    private int stage;
+    private int index;
+
+    MovePicker(final MoveOrdering moveOrdering) {
+        this.moveOrdering = moveOrdering;
+        this.moves = new MoveList();
+        this.scores = new int[SearchBoard.MAX_MOVES];
+    }
+
+    void init(final SearchBoard board, final int hashMove) {
+        this.board = board;
+        this.hashMove = hashMove;
+        this.capturesOnly = false;
+        this.ply = board.getPly();
+        this.stage = HASH_MOVE;
+    }
+
+    //only the captures and promotions, for the quiescence search
+    void initCaptures(final SearchBoard board) {
+        this.board = board;
+        this.hashMove = AlphaBeta.NO_MOVE;
+        this.capturesOnly = true;
+        this.ply = board.getPly();
+        this.stage = GENERATE_CAPTURES;
+    }
+
+    /**
+     * Returns the next move to search, or {@link AlphaBeta#NO_MOVE} once every legal move has
+     * been handed out. Each stage falls through to the next once it has nothing left to give.
+     */
+    @SuppressWarnings("fallthrough")
+    int nextMove() {
+        switch (this.stage) {
+            case HASH_MOVE:
+                this.stage = GENERATE_CAPTURES;
+                //a table move may come from a colliding position, so it is checked before use
+                if (this.hashMove != AlphaBeta.NO_MOVE && this.board.isLegalMove(this.hashMove)) {
+                    return this.hashMove;
+                }
+                this.hashMove = AlphaBeta.NO_MOVE;
+            case GENERATE_CAPTURES:
+                this.board.generateCaptures(this.moves);
+                for (int i = 0; i < this.moves.size(); i++) {
+                    this.scores[i] = MoveOrdering.scoreCapture(this.board, this.moves.get(i));
+                }
+                this.index = 0;
+                this.stage = CAPTURES;
+            case CAPTURES:
+                final int capture = pickBest();
+                if (capture != AlphaBeta.NO_MOVE) {
+                    return capture;
+                }
+                if (this.capturesOnly) {
+                    this.stage = DONE;
+                    return AlphaBeta.NO_MOVE;
+                }
+                this.stage = GENERATE_QUIET_MOVES;
+            case GENERATE_QUIET_MOVES:
+                this.board.generateQuietMoves(this.moves);
+                final Alliance alliance = this.board.getSideToMove();
+                for (int i = 0; i < this.moves.size(); i++) {
+                    this.scores[i] = this.moveOrdering.scoreQuietMove(alliance, this.moves.get(i), this.ply);
+                }
+                this.index = 0;
+                this.stage = QUIET_MOVES;
+            case QUIET_MOVES:
+                final int quietMove = pickBest();
+                if (quietMove != AlphaBeta.NO_MOVE) {
+                    return quietMove;
+                }
+                this.stage = DONE;
+            default:
+                return AlphaBeta.NO_MOVE;
+        }
+    }
+
+    //selection sort one step at a time, most nodes only ever look at their first few moves
+    private int pickBest() {
+        while (this.index < this.moves.size()) {
+            int best = this.index;
+            for (int i = this.index + 1; i < this.moves.size(); i++) {
+                if (this.scores[i] > this.scores[best]) {
+                    best = i;
+                }
+            }
+            this.moves.swap(this.index, best);
+            final int score = this.scores[best];
+            this.scores[best] = this.scores[this.index];
+            this.scores[this.index] = score;
+            final int move = this.moves.get(this.index++);
+            if (move != this.hashMove) {
+                return move;
+            }
+        }
+        return AlphaBeta.NO_MOVE;
+    }
+}
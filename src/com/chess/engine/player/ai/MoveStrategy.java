@@ -3,7 +3,17 @@ package com.chess.engine.player.ai;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
 
+import java.util.List;
+
 public interface MoveStrategy {
     Move execute(Board board);
     long getNumBoardsEvaluated();
+    //transposition table lookups and how many of them found the position, zero without a table
+    long getNumTableProbes();
+    long getNumTableHits();
+    //the line the last execute expects to be played, starting with the move it returned
+    List<Move> getPrincipalVariation();
+    //called from another thread, makes the running execute, or the next one if none is running,
+    //return within milliseconds with the best move found so far, the null move if there was none
+    void stop();
 }
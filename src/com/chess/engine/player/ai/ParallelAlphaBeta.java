@@ -0,0 +1,274 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.SearchBoard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Observable;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Iterative deepening whose iterations spread the root moves over a {@link ForkJoinPool}. The
+ * best move of the previous iteration is searched first to set a bound, then the others run
+ * in parallel, each starting from the best score any worker has found so far. Every worker
+ * thread has an {@link AlphaBeta} of its own, held in a thread local so that it goes with the
+ * thread when the pool retires it, and all of them share one transposition table.
+ */
+public class ParallelAlphaBeta extends Observable implements MoveStrategy {
+
+    private final ForkJoinPool pool;
+    private final TranspositionTable transpositionTable;
+    private final int maxDepth;
+    private final long moveTimeMillis;
+    private final ThreadLocal<Searcher> searchers;
+    //the searchers in the middle of a root move, the only ones a stop has to reach
+    private final Set<AlphaBeta> activeSearchers;
+    //counts executes, a searcher last used by an earlier one starts over with its move ordering
+    private int searchNumber;
+    private final LongAdder boardsEvaluated;
+    private volatile boolean stopRequested;
+    private List<Move> principalVariation;
+
+    public ParallelAlphaBeta(final int maxDepth,
+                             final long moveTimeMillis,
+                             final TranspositionTable transpositionTable,
+                             final ForkJoinPool pool) {
+        this.pool = pool;
+        this.transpositionTable = transpositionTable;
+        this.maxDepth = Math.max(1, Math.min(maxDepth, IterativeDeepening.MAX_SEARCH_DEPTH));
+        this.moveTimeMillis = moveTimeMillis;
+        this.searchers = ThreadLocal.withInitial(() -> new Searcher(new AlphaBeta(this.maxDepth, this.transpositionTable)));
+        this.activeSearchers = ConcurrentHashMap.newKeySet();
+        this.searchNumber = 0;
+        this.boardsEvaluated = new LongAdder();
+        this.stopRequested = false;
+        this.principalVariation = Collections.emptyList();
+    }
+
+    @Override
+    public String toString() {
+        return "ParallelAlphaBeta";
+    }
+
+    @Override
+    public long getNumBoardsEvaluated() {
+        return this.boardsEvaluated.sum();
+    }
+
+    @Override
+    public long getNumTableProbes() {
+        return this.transpositionTable.getNumProbes();
+    }
+
+    @Override
+    public long getNumTableHits() {
+        return this.transpositionTable.getNumHits();
+    }
+
+    @Override
+    public List<Move> getPrincipalVariation() {
+        return this.principalVariation;
+    }
+
+    //searchers starting a root move after this look at the flag before their first node
+    @Override
+    public void stop() {
+        this.stopRequested = true;
+        for (final AlphaBeta searcher : this.activeSearchers) {
+            searcher.requestStop();
+        }
+    }
+
+    @Override
+    public Move execute(final Board board) {
+        final long startTime = System.currentTimeMillis();
+        final SearchBoard rootBoard = new SearchBoard(board);
+        System.out.println(board.currentPlayer() + " thinking for " + this.moveTimeMillis + " ms, up to depth " +
+                this.maxDepth + " on " + this.pool.getParallelism() + " threads");
+        this.transpositionTable.newSearch();
+        this.searchNumber++;
+        final MoveList rootMoves = new MoveList();
+        rootBoard.generateMoves(rootMoves);
+        int bestMove = AlphaBeta.NO_MOVE;
+        int bestValue = 0;
+        int completedDepth = 0;
+        int[] bestLine = new int[0];
+        for (int depth = 1; depth <= this.maxDepth && !rootMoves.isEmpty(); depth++) {
+            final long deadline = depth == 1 ? Long.MAX_VALUE : startTime + this.moveTimeMillis;
+            final RootSearch rootSearch = new RootSearch(board, rootMoves, depth, deadline);
+            this.pool.invoke(rootSearch);
+            //a stopped iteration only offers the root moves whose search finished before the stop,
+            //none when the first move was cut short; it is used only if no iteration completed
+            if (rootSearch.getBestMove() == AlphaBeta.NO_MOVE || (rootSearch.stopped && completedDepth > 0)) {
+                break;
+            }
+            bestMove = rootSearch.getBestMove();
+            bestValue = rootSearch.getBestValue();
+            bestLine = rootSearch.bestLine;
+            completedDepth = depth;
+            if (rootSearch.stopped) {
+                break;
+            }
+            this.transpositionTable.store(rootBoard.getZobristKey(), bestMove, bestValue, depth, TranspositionTable.EXACT);
+            moveToFront(rootMoves, bestMove);
+            final String s = "\t" + toString() + " depth " + depth + ", best: " +
+                    Move.MoveFactory.createMove(board, bestMove) + " [score: " + bestValue + "], boards = " +
+                    this.boardsEvaluated.sum() + ", time = " + (System.currentTimeMillis() - startTime) + " ms";
+            setChanged();
+            notifyObservers(s);
+            if (System.currentTimeMillis() - startTime >= this.moveTimeMillis) {
+                break;
+            }
+        }
+        this.stopRequested = false;
+        final Move selectedMove = Move.MoveFactory.createMove(board, bestMove);
+        this.principalVariation = Move.MoveFactory.createMoves(board, bestLine);
+        final long executionTime = Math.max(1, System.currentTimeMillis() - startTime);
+        final String result = String.format("%s SELECTS %s [score: %d] at depth %d on %d threads, boards evaluated = %d, " +
+                        "table hits = %.1f%%, time taken = %d ms, rate = %.1f", board.currentPlayer(), selectedMove,
+                bestValue, completedDepth, this.pool.getParallelism(), this.boardsEvaluated.sum(),
+                100 * this.transpositionTable.getHitRate(), executionTime,
+                (1000 * ((double) this.boardsEvaluated.sum() / executionTime)));
+        System.out.println(result);
+        setChanged();
+        notifyObservers(result);
+        return selectedMove;
+    }
+
+    private static void moveToFront(final MoveList moves, final int move) {
+        for (int i = 0; i < moves.size(); i++) {
+            if (moves.get(i) == move) {
+                moves.swap(0, i);
+                return;
+            }
+        }
+    }
+
+    //the calling pool thread's own searcher, created on its first task; the pool's invoke
+    //publishes the search number to the workers
+    private AlphaBeta getSearcher() {
+        final Searcher searcher = this.searchers.get();
+        if (searcher.searchNumber != this.searchNumber) {
+            searcher.searchNumber = this.searchNumber;
+            searcher.alphaBeta.resetMoveOrdering();
+        }
+        return searcher.alphaBeta;
+    }
+
+    private static final class Searcher {
+        private final AlphaBeta alphaBeta;
+        private int searchNumber;
+
+        Searcher(final AlphaBeta alphaBeta) {
+            this.alphaBeta = alphaBeta;
+            this.searchNumber = 0;
+        }
+    }
+
+    //score in the high half, so the larger packed value is always the better result
+    private static long packResult(final int value, final int move) {
+        return ((long) value << 32) | (move & 0xFFFFFFFFL);
+    }
+
+    /**
+     * One iteration: the first root move alone, then the rest in parallel.
+     */
+    private final class RootSearch extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final MoveList rootMoves;
+        private final int depth;
+        private final long deadline;
+        //best score and move found by any worker, raised under the lock and read without it
+        private final AtomicLong bestResult;
+        //the root move and the line below it, replaced together with the best result
+        private int[] bestLine;
+        private volatile boolean stopped;
+
+        RootSearch(final Board board, final MoveList rootMoves, final int depth, final long deadline) {
+            this.board = board;
+            this.rootMoves = rootMoves;
+            this.depth = depth;
+            this.deadline = deadline;
+            this.bestResult = new AtomicLong(packResult(-AlphaBeta.INFINITY, AlphaBeta.NO_MOVE));
+            this.bestLine = new int[0];
+            this.stopped = false;
+        }
+
+        @Override
+        protected void compute() {
+            searchRootMove(this.rootMoves.get(0));
+            final List<RecursiveAction> tasks = new ArrayList<>();
+            for (int i = 1; i < this.rootMoves.size(); i++) {
+                final int move = this.rootMoves.get(i);
+                tasks.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        searchRootMove(move);
+                    }
+                });
+            }
+            invokeAll(tasks);
+        }
+
+        private void searchRootMove(final int move) {
+            if (this.stopped) {
+                return;
+            }
+            final AlphaBeta searcher = getSearcher();
+            //registered before the flag is read, so a stop either sees the searcher or is seen by it
+            searcher.clearStopRequest();
+            ParallelAlphaBeta.this.activeSearchers.add(searcher);
+            if (ParallelAlphaBeta.this.stopRequested) {
+                searcher.requestStop();
+            }
+            searcher.setDeadline(this.deadline);
+            final long boardsBefore = searcher.getNumBoardsEvaluated();
+            final SearchBoard searchBoard = new SearchBoard(this.board);
+            final int alpha = getBestValue();
+            searchBoard.makeMove(move);
+            final int value;
+            try {
+                value = -searcher.search(searchBoard, this.depth - 1, -AlphaBeta.INFINITY, -alpha);
+            } finally {
+                ParallelAlphaBeta.this.activeSearchers.remove(searcher);
+            }
+            ParallelAlphaBeta.this.boardsEvaluated.add(searcher.getNumBoardsEvaluated() - boardsBefore);
+            if (searcher.isStopped()) {
+                this.stopped = true;
+            } else if (value > alpha) {
+                //above the bound it started from the score is exact
+                offerResult(value, move, searcher.getPrincipalVariation(searchBoard.getPly()));
+            }
+        }
+
+        private synchronized void offerResult(final int value, final int move, final int[] line) {
+            final long result = packResult(value, move);
+            if (result > this.bestResult.get()) {
+                this.bestResult.set(result);
+                this.bestLine = new int[line.length + 1];
+                this.bestLine[0] = move;
+                System.arraycopy(line, 0, this.bestLine, 1, line.length);
+            }
+        }
+
+        int getBestValue() {
+            return (int) (this.bestResult.get() >> 32);
+        }
+
+        int getBestMove() {
+            return (int) this.bestResult.get();
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.chess.engine.player.ai;
 
+import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
+import com.chess.engine.board.SearchBoard;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
 import com.chess.engine.player.Player;
 
 public final class StandardBoardEvaluator implements BoardEvaluator {
@@ -9,6 +12,7 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
     private static final int CHECK_MATE_BONUS = 10000;
     private static final int DEPTH_BONUS = 100;
     private static final int CASTLE_BONUS = 60;
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
     private static final StandardBoardEvaluator INSTANCE = new StandardBoardEvaluator();
 
     @Override
@@ -16,6 +20,11 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
         return scorePlayer(board, board.whitePlayer(),depth) -
                 scorePlayer(board, board.blackPlayer(), depth);
     }
+    @Override
+    public int evaluate(final SearchBoard board, final int depth) {
+        return scoreAlliance(board, Alliance.WHITE, depth) -
+                scoreAlliance(board, Alliance.BLACK, depth);
+    }
     public static StandardBoardEvaluator get() {
         return INSTANCE;
     }
@@ -34,6 +43,27 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
                castled(player);
     }
 
+    private static int scoreAlliance(final SearchBoard board, final Alliance alliance, final int depth) {
+        final Alliance opponent = alliance.opposite();
+        int score = pieceValue(board, alliance) + board.countMoves(alliance);
+        if (board.isInCheck(opponent)) {
+            score += CHECK_BONUS;
+            //only the side to move can be mated, so the legal move scan runs at most once per leaf
+            if (board.getSideToMove() == opponent && !board.hasLegalMoves()) {
+                score += CHECK_MATE_BONUS * depthBonus(depth);
+            }
+        }
+        return score + (board.isCastled(alliance) ? CASTLE_BONUS : 0);
+    }
+
+    private static int pieceValue(final SearchBoard board, final Alliance alliance) {
+        int pieceValueScore = 0;
+        for (final PieceType pieceType : PIECE_TYPES) {
+            pieceValueScore += Long.bitCount(board.getPieces(alliance, pieceType)) * pieceType.getPieceValue();
+        }
+        return pieceValueScore;
+    }
+
     private static int castled(Player player) {
         return player.isCastled() ? CASTLE_BONUS : 0;
     }
@@ -0,0 +1,153 @@
+package com.chess.engine.player.ai;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size cache of search results keyed by zobrist key, safe to share between search threads
+ * without locking. Each entry is two longs, the packed data and the key XORed with that data; a
+ * probe only accepts an entry whose halves still agree, so a torn write from another thread
+ * reads as a miss instead of as another position's result.
+ *
+ * Data layout: move bits 0-15, score bits 16-47, depth bits 48-55, bound bits 56-57 and the
+ * search generation bits 58-63. The bound is never zero, so a data word of zero means no entry.
+ */
+public final class TranspositionTable {
+
+    public static final long NO_ENTRY = 0;
+
+    public static final int EXACT = 1;
+    //the score is at least the stored one, the node failed high
+    public static final int LOWER_BOUND = 2;
+    //the score is at most the stored one, no move raised alpha
+    public static final int UPPER_BOUND = 3;
+
+    private static final int BYTES_PER_ENTRY = 16;
+    private static final int MAX_DEPTH = 0xFF;
+    private static final int GENERATION_MASK = 0x3F;
+
+    private final AtomicLongArray entries;
+    private final int indexMask;
+    private final int sizeMb;
+    private final LongAdder probes;
+    private final LongAdder hits;
+    private volatile int generation;
+
+    public TranspositionTable(final int sizeMb) {
+        //the largest power of two number of entries that fits, so a key can be masked into an index
+        final long maxEntries = Math.max(1, ((long) sizeMb << 20) / BYTES_PER_ENTRY);
+        final int numEntries = (int) Math.min(Long.highestOneBit(maxEntries), 1 << 29);
+        this.entries = new AtomicLongArray(numEntries * 2);
+        this.indexMask = numEntries - 1;
+        this.sizeMb = sizeMb;
+        this.probes = new LongAdder();
+        this.hits = new LongAdder();
+        this.generation = 0;
+    }
+
+    public int getSizeMb() {
+        return this.sizeMb;
+    }
+
+    /**
+     * Starts a new search: entries written by earlier searches become the first to be replaced.
+     */
+    public void newSearch() {
+        this.generation = (this.generation + 1) & GENERATION_MASK;
+    }
+
+    public void clear() {
+        for (int i = 0; i < this.entries.length(); i++) {
+            this.entries.set(i, 0);
+        }
+        this.probes.reset();
+        this.hits.reset();
+    }
+
+    /**
+     * Returns the packed data stored for the key, or {@link #NO_ENTRY}.
+     */
+    public long probe(final long zobristKey) {
+        this.probes.increment();
+        final int index = index(zobristKey);
+        final long data = this.entries.get(index + 1);
+        if (data != NO_ENTRY && (this.entries.get(index) ^ data) == zobristKey) {
+            this.hits.increment();
+            return data;
+        }
+        return NO_ENTRY;
+    }
+
+    /**
+     * Stores a search result. An entry of another position is only replaced when it comes from an
+     * earlier search or was searched no deeper; a result without a move keeps the move stored for
+     * the same position.
+     */
+    public void store(final long zobristKey, final int move, final int score, final int depth, final int bound) {
+        final int index = index(zobristKey);
+        final long oldData = this.entries.get(index + 1);
+        final boolean samePosition = (this.entries.get(index) ^ oldData) == zobristKey;
+        if (oldData != NO_ENTRY && !samePosition && getGeneration(oldData) == this.generation &&
+                getDepth(oldData) > depth) {
+            return;
+        }
+        final int storedMove = move == AlphaBeta.NO_MOVE && samePosition && oldData != NO_ENTRY ? getMove(oldData) : move;
+        final long data = ((storedMove == AlphaBeta.NO_MOVE ? 0L : storedMove & 0xFFFFL)) |
+                ((score & 0xFFFFFFFFL) << 16) |
+                ((long) Math.min(depth, MAX_DEPTH) << 48) |
+                ((long) bound << 56) |
+                ((long) this.generation << 58);
+        this.entries.lazySet(index, zobristKey ^ data);
+        this.entries.lazySet(index + 1, data);
+    }
+
+    public long getNumProbes() {
+        return this.probes.sum();
+    }
+
+    public long getNumHits() {
+        return this.hits.sum();
+    }
+
+    public double getHitRate() {
+        final long numProbes = getNumProbes();
+        return numProbes == 0 ? 0 : (double) getNumHits() / numProbes;
+    }
+
+    //how full the table is, sampled from its first thousand entries
+    public double getFillRate() {
+        final int samples = Math.min(1000, this.indexMask + 1);
+        int used = 0;
+        for (int i = 0; i < samples; i++) {
+            if (this.entries.get(2 * i + 1) != NO_ENTRY) {
+                used++;
+            }
+        }
+        return (double) used / samples;
+    }
+
+    private int index(final long zobristKey) {
+        return ((int) zobristKey & this.indexMask) * 2;
+    }
+
+    public static int getMove(final long data) {
+        final int move = (int) (data & 0xFFFF);
+        return move == 0 ? AlphaBeta.NO_MOVE : move;
+    }
+
+    public static int getScore(final long data) {
+        return (int) (data >>> 16);
+    }
+
+    public static int getDepth(final long data) {
+        return (int) ((data >>> 48) & MAX_DEPTH);
+    }
+
+    public static int getBound(final long data) {
+        return (int) ((data >>> 56) & 0x3);
+    }
+
+    private static int getGeneration(final long data) {
+        return (int) (data >>> 58);
+    }
+}
@@ -2,6 +2,7 @@ package com.chess.gui;
 import com.chess.engine.Alliance;
 import com.chess.engine.player.Player;
 import com.chess.gui.Table.PlayerType;
+import com.chess.gui.Table.SearchType;
 
 import javax.swing.*;
 import java.awt.*;
@@ -12,14 +13,24 @@ class GameSetup extends JDialog {
 
     private PlayerType whitePlayerType;
     private PlayerType blackPlayerType;
+    private SearchType searchType;
     private JSpinner searchDepthSpinner;
+    private JSpinner moveTimeSpinner;
+    private JSpinner hashSizeSpinner;
+    private JSpinner searchThreadsSpinner;
+    private JCheckBox ponderCheckBox;
 
     private static final String HUMAN_TEXT = "Human";
     private static final String COMPUTER_TEXT = "Computer";
+    private static final String MINIMAX_TEXT = "MiniMax";
+    private static final String ALPHA_BETA_TEXT = "Alpha-Beta";
+    private static final String PARALLEL_ALPHA_BETA_TEXT = "Parallel Alpha-Beta";
+    private static final String LAZY_SMP_TEXT = "Lazy SMP";
 
     GameSetup(final JFrame frame,
               final boolean modal) {
         super(frame, modal);
+        this.searchType = SearchType.ALPHA_BETA;
         final JPanel myPanel;
         myPanel = new JPanel(new GridLayout(0, 1));
         final JRadioButton whiteHumanButton, whiteComputerButton, blackHumanButton, blackComputerButton;
@@ -49,7 +60,29 @@ class GameSetup extends JDialog {
         myPanel.add(blackComputerButton);
 
         myPanel.add(new JLabel("Search"));
-        this.searchDepthSpinner = addLabeledSpinner(myPanel, "Search Depth", new SpinnerNumberModel(6, 0, Integer.MAX_VALUE, 1));
+        final JRadioButton miniMaxButton, alphaBetaButton, parallelAlphaBetaButton, lazySmpButton;
+        miniMaxButton = new JRadioButton(MINIMAX_TEXT);
+        alphaBetaButton = new JRadioButton(ALPHA_BETA_TEXT);
+        parallelAlphaBetaButton = new JRadioButton(PARALLEL_ALPHA_BETA_TEXT);
+        lazySmpButton = new JRadioButton(LAZY_SMP_TEXT);
+        final ButtonGroup searchGroup;
+        searchGroup = new ButtonGroup();
+        searchGroup.add(miniMaxButton);
+        searchGroup.add(alphaBetaButton);
+        searchGroup.add(parallelAlphaBetaButton);
+        searchGroup.add(lazySmpButton);
+        alphaBetaButton.setSelected(true);
+        myPanel.add(miniMaxButton);
+        myPanel.add(alphaBetaButton);
+        myPanel.add(parallelAlphaBetaButton);
+        myPanel.add(lazySmpButton);
+        this.searchDepthSpinner = addLabeledSpinner(myPanel, "Search Depth", new SpinnerNumberModel(6, 1, 64, 1));
+        this.moveTimeSpinner = addLabeledSpinner(myPanel, "Seconds Per Move", new SpinnerNumberModel(5, 1, Integer.MAX_VALUE, 1));
+        this.hashSizeSpinner = addLabeledSpinner(myPanel, "Hash Table (MB)", new SpinnerNumberModel(64, 1, 4096, 1));
+        this.searchThreadsSpinner = addLabeledSpinner(myPanel, "Search Threads",
+                new SpinnerNumberModel(Runtime.getRuntime().availableProcessors(), 1, 256, 1));
+        this.ponderCheckBox = new JCheckBox("Ponder On Opponent's Time", true);
+        myPanel.add(this.ponderCheckBox);
 
         final JButton cancelButton, okButton;
         cancelButton = new JButton("Cancel");
@@ -59,6 +92,9 @@ class GameSetup extends JDialog {
             public void actionPerformed(ActionEvent e) {
                 whitePlayerType = whiteComputerButton.isSelected() ? PlayerType.COMPUTER : PlayerType.HUMAN;
                 blackPlayerType = blackComputerButton.isSelected() ? PlayerType.COMPUTER : PlayerType.HUMAN;
+                searchType = miniMaxButton.isSelected() ? SearchType.MINIMAX :
+                        parallelAlphaBetaButton.isSelected() ? SearchType.PARALLEL_ALPHA_BETA :
+                        lazySmpButton.isSelected() ? SearchType.LAZY_SMP : SearchType.ALPHA_BETA;
                 GameSetup.this.setVisible(false);
             }
         });
@@ -98,6 +134,26 @@ class GameSetup extends JDialog {
         return this.blackPlayerType;
     }
 
+    long getMoveTimeMillis() {
+        return 1000L * (Integer)this.moveTimeSpinner.getValue();
+    }
+
+    int getHashSizeMb() {
+        return (Integer)this.hashSizeSpinner.getValue();
+    }
+
+    int getSearchThreads() {
+        return (Integer)this.searchThreadsSpinner.getValue();
+    }
+
+    boolean isPondering() {
+        return this.ponderCheckBox.isSelected();
+    }
+
+    SearchType getSearchType() {
+        return this.searchType;
+    }
+
     private static JSpinner addLabeledSpinner(final Container c,
                                               final String label,
                                               final SpinnerModel model) {
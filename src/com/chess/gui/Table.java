@@ -6,9 +6,13 @@ import com.chess.engine.board.Move;
 import com.chess.engine.board.Tile;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.player.MoveTransition;
+import com.chess.engine.player.ai.IterativeDeepening;
+import com.chess.engine.player.ai.LazySmp;
 import com.chess.engine.player.ai.MiniMax;
 import com.chess.engine.player.ai.MoveStrategy;
+import com.chess.engine.player.ai.ParallelAlphaBeta;
 import com.chess.engine.player.ai.StandardBoardEvaluator;
+import com.chess.engine.player.ai.TranspositionTable;
 //import com.chess.pgn.SQLGamePersistence;
 import com.google.common.collect.Lists;
 
@@ -20,12 +24,17 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static com.chess.pgn.PGNUtilities.persistPGNFile;
 import static com.chess.pgn.PGNUtilities.writeGameToPGNFile;
@@ -40,6 +49,10 @@ public class Table extends Observable {
     private final BoardPanel boardPanel;
     private final MoveLog moveLog;
     private final GameSetup gameSetup;
+    private TranspositionTable transpositionTable;
+    private ForkJoinPool searchPool;
+    private AIThinkTank thinkTank;
+    private AIPonderer ponderer;
     private Board chessBoard;
 
     private Tile sourceTile;
@@ -53,6 +66,8 @@ public class Table extends Observable {
     private final static Dimension OUTER_FRAME_DIMENSION = new Dimension(700,600);
     private final static Dimension BOARD_PANEL_DIMENSION = new Dimension(400, 350);
     private final static Dimension TILE_PANEL_DIMENSION = new Dimension(10,10);
+    //a ponder search runs until the opponent moves
+    private final static long PONDER_TIME_MILLIS = Long.MAX_VALUE / 4;
 
     private static String pieceIconPath = "art/simple/";
 
@@ -90,6 +105,12 @@ public class Table extends Observable {
         gameFrame.add(this.boardPanel, BorderLayout.CENTER);
         gameFrame.add(this.gameHistoryPanel, BorderLayout.EAST);
         gameFrame.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
+        gameFrame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(final WindowEvent e) {
+                stopThinking();
+            }
+        });
         center(gameFrame);
         gameFrame.setVisible(true);
     }
@@ -111,10 +132,82 @@ public class Table extends Observable {
     private GameSetup getGameSetup() {
         return this.gameSetup;
     }
+
+    //kept from move to move so every search starts with what the previous ones found
+    private TranspositionTable getTranspositionTable(final int sizeMb) {
+        if (this.transpositionTable == null || this.transpositionTable.getSizeMb() != sizeMb) {
+            this.transpositionTable = new TranspositionTable(sizeMb);
+        }
+        return this.transpositionTable;
+    }
+
+    private ForkJoinPool getSearchPool(final int threads) {
+        if (this.searchPool == null || this.searchPool.getParallelism() != threads) {
+            if (this.searchPool != null) {
+                this.searchPool.shutdown();
+            }
+            this.searchPool = new ForkJoinPool(threads);
+        }
+        return this.searchPool;
+    }
     private Board getGameBoard() {
         return this.chessBoard;
     }
 
+    private void updateThinkTank(final AIThinkTank thinkTank) {
+        this.thinkTank = thinkTank;
+    }
+
+    //abandons the computer's move in progress, its search returns within milliseconds
+    private void stopThinking() {
+        if (this.thinkTank != null && !this.thinkTank.isDone()) {
+            this.thinkTank.stopSearch();
+        }
+        this.thinkTank = null;
+        if (this.ponderer != null) {
+            this.ponderer.stopPondering();
+            this.ponderer = null;
+        }
+    }
+
+    //searches the position after the reply the computer's last search expects, while the human thinks
+    private void startPondering(final MoveStrategy strategy) {
+        final List<Move> principalVariation = strategy.getPrincipalVariation();
+        if (!this.gameSetup.isPondering() || !this.gameSetup.getSearchType().isTimeLimited() ||
+                this.gameSetup.isAIPlayer(this.chessBoard.currentPlayer()) || principalVariation.size() < 2) {
+            return;
+        }
+        final Move expectedMove = principalVariation.get(1);
+        if (expectedMove.getBoard().getZobristKey() != this.chessBoard.getZobristKey()) {
+            return;
+        }
+        final Board ponderBoard = expectedMove.execute();
+        if (ponderBoard.currentPlayer().getLegalMoves().isEmpty()) {
+            return;
+        }
+        this.ponderer = new AIPonderer(this.gameSetup.getSearchType().createMoveStrategy(this.gameSetup.getSearchDepth(),
+                PONDER_TIME_MILLIS, getTranspositionTable(this.gameSetup.getHashSizeMb()),
+                getSearchPool(this.gameSetup.getSearchThreads())), ponderBoard);
+        this.ponderer.execute();
+    }
+
+    //the ponder search when the human played the expected move, otherwise it is stopped and
+    //only what it left in the transposition table is kept
+    private AIPonderer takePonderer() {
+        final AIPonderer ponderer = this.ponderer;
+        this.ponderer = null;
+        if (ponderer == null) {
+            return null;
+        }
+        if (ponderer.getBoard().getZobristKey() == this.chessBoard.getZobristKey()) {
+            //the same position, but the board the ponder search's moves belong to
+            this.chessBoard = ponderer.getBoard();
+            return ponderer;
+        }
+        ponderer.stopPondering();
+        return null;
+    }
+
     private JMenuBar createTableMenuBar() {
         final JMenuBar tableMenuBar = new JMenuBar();
         tableMenuBar.add(createFileMenu());
@@ -126,6 +219,19 @@ public class Table extends Observable {
     private JMenu createFileMenu() {
         final JMenu fileMenu;
         fileMenu = new JMenu("File");
+        final JMenuItem newGameMenuItem;
+        newGameMenuItem = new JMenuItem("New Game");
+        newGameMenuItem.addActionListener(e -> {
+            stopThinking();
+            chessBoard = Board.createStandardBoard();
+            computerMove = null;
+            sourceTile = null;
+            destinationTile = null;
+            humanMovedPiece = null;
+            show();
+            setupUpdate(gameSetup);
+        });
+        fileMenu.add(newGameMenuItem);
         final JMenuItem openPGN;
         openPGN = new JMenuItem("Load PGN File");
         openPGN.addActionListener(e -> {
@@ -164,6 +270,7 @@ public class Table extends Observable {
         exitMenuItem.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
+                Table.get().stopThinking();
                 System.exit(0);
             }
         });
@@ -292,6 +399,8 @@ public class Table extends Observable {
             @Override
             public void actionPerformed(ActionEvent e) {
                 Table.get().getGameSetup().promptUser();
+                //the computer starts over with the new setup
+                Table.get().stopThinking();
                 Table.get().setupUpdate(Table.get().getGameSetup());
             }
         });
@@ -330,11 +439,14 @@ public class Table extends Observable {
     private static class TableGameAIWatcher implements Observer {
         @Override
         public void update(final Observable o, final Object arg) {
+            //taken on every move, so a miss is stopped even when the human's move ended the game
+            final AIPonderer ponderer = Table.get().takePonderer();
             if (Table.get().getGameSetup().isAIPlayer(Table.get().getGameBoard().currentPlayer()) &&
                 !Table.get().getGameBoard().currentPlayer().isInCheckMate() &&
                 !Table.get().getGameBoard().currentPlayer().isInStaleMate()) {
                 final AIThinkTank thinkTank;
-                thinkTank = new AIThinkTank();
+                thinkTank = new AIThinkTank(ponderer);
+                Table.get().updateThinkTank(thinkTank);
                 thinkTank.execute();
             }
             if (Table.get().getGameBoard().currentPlayer().isInCheckMate()) {
@@ -374,13 +486,31 @@ public class Table extends Observable {
         notifyObservers(playerType);
     }
     private static class AIThinkTank extends SwingWorker<Move, String> {
-        private AIThinkTank() {
-
+        private final AIPonderer ponderer;
+        private volatile MoveStrategy strategy;
+        private AIThinkTank(final AIPonderer ponderer) {
+            this.ponderer = ponderer;
         }
         @Override
         protected Move doInBackground() throws Exception {
-            final MoveStrategy miniMax = new MiniMax(4);
-            final Move bestMove = miniMax.execute(Table.get().getGameBoard());
+            final GameSetup gameSetup = Table.get().getGameSetup();
+            //the ponder search already has this position, it only needs to be given a time limit
+            if (this.ponderer != null) {
+                this.strategy = this.ponderer.getStrategy();
+                if (isCancelled()) {
+                    return Move.MoveFactory.getNullMove();
+                }
+                return this.ponderer.finish(gameSetup.getMoveTimeMillis());
+            }
+            final MoveStrategy strategy = gameSetup.getSearchType().createMoveStrategy(gameSetup.getSearchDepth(),
+                    gameSetup.getMoveTimeMillis(), Table.get().getTranspositionTable(gameSetup.getHashSizeMb()),
+                    Table.get().getSearchPool(gameSetup.getSearchThreads()));
+            this.strategy = strategy;
+            //stopped before the strategy was there to be told
+            if (isCancelled()) {
+                return Move.MoveFactory.getNullMove();
+            }
+            final Move bestMove = strategy.execute(Table.get().getGameBoard());
             return bestMove;
             /*final MoveStrategy miniMax = new MiniMax(4);
             final Move bestMove; // = miniMax.execute(Table.get().getGameBoard());
@@ -400,8 +530,19 @@ public class Table extends Observable {
             return bestMove;
              */
         }
+        //cancels the worker, so done() drops the move, and ends the search behind it
+        private void stopSearch() {
+            cancel(false);
+            final MoveStrategy strategy = this.strategy;
+            if (strategy != null) {
+                strategy.stop();
+            }
+        }
         @Override
         public void done() {
+            if (isCancelled()) {
+                return;
+            }
             try {
                 final Move bestMove = get();
                 Table.get().updateComputerMove(bestMove);
@@ -411,6 +552,7 @@ public class Table extends Observable {
                 Table.get().getTakenPiecesPanel().redo(Table.get().getMoveLog());
                 Table.get().getBoardPanel().drawBoard(Table.get().getGameBoard());
                 Table.get().moveMadeUpdate(PlayerType.COMPUTER);
+                Table.get().startPondering(this.strategy);
             } catch (InterruptedException e) {
                 e.printStackTrace();
             } catch (ExecutionException e) {
@@ -419,6 +561,44 @@ public class Table extends Observable {
         }
     }
 
+    /**
+     * Searches the position after the human's expected reply while the human thinks. When that
+     * reply is played the search carries on as the computer's own, with the time spent pondering
+     * counted against its move time, so an answer to a long think comes almost at once.
+     */
+    private static class AIPonderer extends SwingWorker<Move, String> {
+        private final MoveStrategy strategy;
+        private final Board board;
+        private final long startTime;
+        private AIPonderer(final MoveStrategy strategy, final Board board) {
+            this.strategy = strategy;
+            this.board = board;
+            this.startTime = System.currentTimeMillis();
+        }
+        @Override
+        protected Move doInBackground() {
+            return this.strategy.execute(this.board);
+        }
+        private MoveStrategy getStrategy() {
+            return this.strategy;
+        }
+        private Board getBoard() {
+            return this.board;
+        }
+        private void stopPondering() {
+            this.strategy.stop();
+        }
+        //waits out what is left of the move time, then takes the best move found
+        private Move finish(final long moveTimeMillis) throws InterruptedException, ExecutionException {
+            final long remainingMillis = moveTimeMillis - (System.currentTimeMillis() - this.startTime);
+            try {
+                return get(Math.max(0, remainingMillis), TimeUnit.MILLISECONDS);
+            } catch (final TimeoutException e) {
+                this.strategy.stop();
+                return get();
+            }
+        }
+    }
 
     public enum BoardDirection {
         NORMAL {
@@ -518,6 +698,57 @@ public class Table extends Observable {
         HUMAN,
         COMPUTER
     }
+    enum SearchType {
+        MINIMAX {
+            //searches the full depth, however long it takes
+            @Override
+            MoveStrategy createMoveStrategy(final int searchDepth,
+                                            final long moveTimeMillis,
+                                            final TranspositionTable transpositionTable,
+                                            final ForkJoinPool searchPool) {
+                return new MiniMax(searchDepth);
+            }
+            @Override
+            boolean isTimeLimited() {
+                return false;
+            }
+        },
+        ALPHA_BETA {
+            @Override
+            MoveStrategy createMoveStrategy(final int searchDepth,
+                                            final long moveTimeMillis,
+                                            final TranspositionTable transpositionTable,
+                                            final ForkJoinPool searchPool) {
+                return new IterativeDeepening(searchDepth, moveTimeMillis, transpositionTable);
+            }
+        },
+        PARALLEL_ALPHA_BETA {
+            @Override
+            MoveStrategy createMoveStrategy(final int searchDepth,
+                                            final long moveTimeMillis,
+                                            final TranspositionTable transpositionTable,
+                                            final ForkJoinPool searchPool) {
+                return new ParallelAlphaBeta(searchDepth, moveTimeMillis, transpositionTable, searchPool);
+            }
+        },
+        LAZY_SMP {
+            @Override
+            MoveStrategy createMoveStrategy(final int searchDepth,
+                                            final long moveTimeMillis,
+                                            final TranspositionTable transpositionTable,
+                                            final ForkJoinPool searchPool) {
+                return new LazySmp(searchDepth, moveTimeMillis, transpositionTable, searchPool);
+            }
+        };
+        abstract MoveStrategy createMoveStrategy(final int searchDepth,
+                                                 final long moveTimeMillis,
+                                                 final TranspositionTable transpositionTable,
+                                                 final ForkJoinPool searchPool);
+        //whether the search can be stopped at any time with a move worth playing, as pondering needs
+        boolean isTimeLimited() {
+            return true;
+        }
+    }
 
     private class TilePanel extends JPanel {
         private final int tileId;
@@ -0,0 +1,66 @@
+package com.chess.perft;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.SearchBoard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Perft spread over a {@link ForkJoinPool}. The first plies are expanded on immutable
+ * {@link Board}s, which any thread may share, and every position reached there is counted by a
+ * task of its own with a private {@link SearchBoard}.
+ */
+public final class ParallelPerft {
+
+    private final ForkJoinPool pool;
+    private final int splitPlies;
+    private final boolean useBoard;
+
+    public ParallelPerft(final ForkJoinPool pool, final int splitPlies, final boolean useBoard) {
+        this.pool = pool;
+        this.splitPlies = splitPlies;
+        this.useBoard = useBoard;
+    }
+
+    public long count(final Board board, final int depth) {
+        return this.pool.invoke(new PerftTask(board, depth, this.splitPlies, this.useBoard));
+    }
+
+    private static final class PerftTask extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final int depth;
+        private final int splitPlies;
+        private final boolean useBoard;
+
+        PerftTask(final Board board, final int depth, final int splitPlies, final boolean useBoard) {
+            this.board = board;
+            this.depth = depth;
+            this.splitPlies = splitPlies;
+            this.useBoard = useBoard;
+        }
+
+        @Override
+        protected Long compute() {
+            if (this.splitPlies == 0 || this.depth <= 1) {
+                return this.useBoard ? Perft.count(this.board, this.depth) :
+                        new Perft(this.depth).count(new SearchBoard(this.board), this.depth);
+            }
+            final List<PerftTask> subTasks = new ArrayList<>();
+            for (final Move move : this.board.currentPlayer().getLegalMoves()) {
+                subTasks.add(new PerftTask(move.execute(), this.depth - 1, this.splitPlies - 1, this.useBoard));
+            }
+            long nodes = 0;
+            for (final PerftTask subTask : invokeAll(subTasks)) {
+                nodes += subTask.join();
+            }
+            return nodes;
+        }
+    }
+}
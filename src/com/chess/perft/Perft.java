@@ -0,0 +1,195 @@
+package com.chess.perft;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.PawnPromotion;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.pgn.FenUtilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Headless move generator check. Counts the leaf nodes of the legal move tree to a fixed depth,
+ * compares them with the published counts and reports the speed in nodes per second.
+ *
+ * <pre>
+ * Perft                                  every known position to its deepest known count
+ * Perft all 4                            every known position to depth 4
+ * Perft kiwipete 3 divide                counts below each root move of a known position
+ * Perft "&lt;fen&gt;" 5 board                 any FEN, using the immutable Board generator
+ * Perft all 6 parallel                   sequential and fork/join counts, with the speedup
+ * </pre>
+ *
+ * The search's {@link SearchBoard} generator is used unless "board" is given. The process exits
+ * with status 1 when a count differs from the known value, or a parallel count from the
+ * sequential one.
+ */
+public final class Perft {
+
+    //the root and the ply below it are split, enough tasks to keep every worker busy
+    private static final int PARALLEL_SPLIT_PLIES = 2;
+
+    private final MoveList[] moveLists;
+
+    public Perft(final int maxDepth) {
+        this.moveLists = new MoveList[maxDepth + 1];
+        for (int i = 0; i <= maxDepth; i++) {
+            this.moveLists[i] = new MoveList();
+        }
+    }
+
+    public long count(final SearchBoard board, final int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        //the last ply only needs the number of moves, not the positions they lead to
+        if (depth == 1) {
+            return board.countMoves(board.getSideToMove());
+        }
+        final MoveList moves = this.moveLists[depth];
+        board.generateMoves(moves);
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            nodes += count(board, depth - 1);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    public static long count(final Board board, final int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        if (depth == 1) {
+            return board.currentPlayer().getLegalMoves().size();
+        }
+        long nodes = 0;
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            nodes += count(move.execute(), depth - 1);
+        }
+        return nodes;
+    }
+
+    public List<String> divide(final SearchBoard board, final int depth) {
+        final List<String> lines = new ArrayList<>();
+        final MoveList moves = new MoveList();
+        board.generateMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = moves.get(i);
+            board.makeMove(move);
+            lines.add(toText(SearchBoard.getSource(move), SearchBoard.getDestination(move),
+                    SearchBoard.getPromotionType(move)) + ": " + count(board, depth - 1));
+            board.unmakeMove();
+        }
+        return lines;
+    }
+
+    public static List<String> divide(final Board board, final int depth) {
+        final List<String> lines = new ArrayList<>();
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final PieceType promotionType = move instanceof PawnPromotion ? ((PawnPromotion) move).getPromotionType() : null;
+            lines.add(toText(move.getCurrentCoordinate(), move.getDestinationCoordinate(), promotionType) +
+                    ": " + count(move.execute(), depth - 1));
+        }
+        return lines;
+    }
+
+    //coordinate notation, e.g. e2e4 or a7a8n
+    private static String toText(final int source, final int destination, final PieceType promotionType) {
+        final String text = BoardUtils.getPositionAtCoordinate(source) + BoardUtils.getPositionAtCoordinate(destination);
+        return promotionType == null ? text : text + promotionType.toString().toLowerCase();
+    }
+
+    public static void main(final String[] args) {
+        boolean divide = false;
+        boolean useBoard = false;
+        boolean parallel = false;
+        final List<String> arguments = new ArrayList<>();
+        for (final String arg : args) {
+            if (arg.equalsIgnoreCase("divide")) {
+                divide = true;
+            } else if (arg.equalsIgnoreCase("board")) {
+                useBoard = true;
+            } else if (arg.equalsIgnoreCase("parallel")) {
+                parallel = true;
+            } else {
+                arguments.add(arg);
+            }
+        }
+        final String target = arguments.isEmpty() ? "all" : arguments.get(0);
+        final int depth = arguments.size() > 1 ? Integer.parseInt(arguments.get(1)) : -1;
+        boolean passed = true;
+        if (target.equalsIgnoreCase("all")) {
+            for (final PerftPosition position : PerftPosition.values()) {
+                final int positionDepth = depth == -1 ? position.getMaxDepth() : Math.min(depth, position.getMaxDepth());
+                passed &= run(position.name(), position.createBoard(), positionDepth, position, divide, useBoard, parallel);
+            }
+        } else {
+            final PerftPosition position = PerftPosition.fromName(target);
+            final Board board = position != null ? position.createBoard() : FenUtilities.createGameFromFEN(target);
+            final int runDepth = depth != -1 ? depth : position != null ? position.getMaxDepth() : 1;
+            passed = run(target, board, runDepth, position, divide, useBoard, parallel);
+        }
+        if (!passed) {
+            System.out.println("PERFT FAILED");
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(final String name,
+                               final Board board,
+                               final int depth,
+                               final PerftPosition position,
+                               final boolean divide,
+                               final boolean useBoard,
+                               final boolean parallel) {
+        final Perft perft = new Perft(depth);
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final long startTime = System.nanoTime();
+        long nodes = 0;
+        if (divide) {
+            for (final String line : useBoard ? divide(board, depth) : perft.divide(searchBoard, depth)) {
+                System.out.println(line);
+                nodes += Long.parseLong(line.substring(line.indexOf(": ") + 2));
+            }
+        } else {
+            nodes = useBoard ? count(board, depth) : perft.count(searchBoard, depth);
+        }
+        final long executionTime = Math.max(1, (System.nanoTime() - startTime) / 1000000);
+        final boolean isKnown = position != null && depth <= position.getMaxDepth();
+        boolean passed = !isKnown || position.getExpectedNodes(depth) == nodes;
+        System.out.printf("%s depth %d: %d nodes in %d ms, %d nps%s\n", name, depth, nodes, executionTime,
+                1000 * nodes / executionTime,
+                !isKnown ? "" : passed ? " OK" : " FAILED, expected " + position.getExpectedNodes(depth));
+        if (parallel) {
+            passed &= runParallel(name, board, depth, nodes, executionTime, useBoard);
+        }
+        return passed;
+    }
+
+    private static boolean runParallel(final String name,
+                                       final Board board,
+                                       final int depth,
+                                       final long sequentialNodes,
+                                       final long sequentialTime,
+                                       final boolean useBoard) {
+        final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        final ParallelPerft parallelPerft = new ParallelPerft(pool, PARALLEL_SPLIT_PLIES, useBoard);
+        final long startTime = System.nanoTime();
+        final long nodes = parallelPerft.count(board, depth);
+        final long executionTime = Math.max(1, (System.nanoTime() - startTime) / 1000000);
+        pool.shutdown();
+        final boolean passed = nodes == sequentialNodes;
+        System.out.printf("%s depth %d parallel (%d threads): %d nodes in %d ms, %d nps, speedup %.2fx%s\n", name, depth,
+                pool.getParallelism(), nodes, executionTime, 1000 * nodes / executionTime,
+                (double) sequentialTime / executionTime,
+                passed ? " OK" : " FAILED, sequential count " + sequentialNodes);
+        return passed;
+    }
+}
@@ -0,0 +1,150 @@
+package com.chess.pgn;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.pieces.PieceUtils;
+
+public class FenUtilities {
+
+    private FenUtilities() {
+        throw new RuntimeException("Not Instantiable!");
+    }
+
+    /**
+     * Builds the board described by a FEN string. Castling rights are carried by the first-move
+     * flags of the king and rooks, and pawns on their starting rank may still jump.
+     */
+    public static Board createGameFromFEN(final String fenString) {
+        final String[] fenPartitions = fenString.trim().split("\\s+");
+        if (fenPartitions.length < 4) {
+            throw new IllegalArgumentException("Invalid FEN " + fenString);
+        }
+        final String castlingRights = fenPartitions[2];
+        final Board.Builder builder = new Board.Builder();
+        int coordinate = BoardUtils.START_TILE_INDEX;
+        for (final char fenChar : fenPartitions[0].toCharArray()) {
+            if (fenChar == '/') {
+                continue;
+            }
+            if (Character.isDigit(fenChar)) {
+                coordinate += fenChar - '0';
+                continue;
+            }
+            final Alliance alliance = Character.isUpperCase(fenChar) ? Alliance.WHITE : Alliance.BLACK;
+            final PieceType pieceType = pieceTypeOf(fenChar, fenString);
+            builder.setPiece(PieceUtils.getPiece(pieceType, alliance, coordinate,
+                    isFirstMove(pieceType, alliance, coordinate, castlingRights)));
+            coordinate++;
+        }
+        if (coordinate != BoardUtils.NUM_TILES) {
+            throw new IllegalArgumentException("Invalid FEN " + fenString);
+        }
+        final Alliance moveMaker = fenPartitions[1].equals("b") ? Alliance.BLACK : Alliance.WHITE;
+        builder.setMoveMaker(moveMaker);
+        if (!fenPartitions[3].equals("-")) {
+            //FEN names the tile passed over, the board wants the pawn that jumped past it
+            final int enPassantCoordinate = BoardUtils.getCoordinateAtPosition(fenPartitions[3]);
+            final int pawnCoordinate = enPassantCoordinate + (moveMaker.getDirection() * BoardUtils.NUM_TILES_PER_ROW);
+            builder.setEnPassantPawn(PieceUtils.getPawn(moveMaker.opposite(), pawnCoordinate, false));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Writes the FEN string of a board. Move counters are not tracked by the board, so they are
+     * always written as "0 1".
+     */
+    public static String createFENFromGame(final Board board) {
+        final StringBuilder fen = new StringBuilder();
+        int emptyTiles = 0;
+        for (int coordinate = BoardUtils.START_TILE_INDEX; coordinate < BoardUtils.NUM_TILES; coordinate++) {
+            final Piece piece = board.getPiece(coordinate);
+            if (piece == null) {
+                emptyTiles++;
+            } else {
+                if (emptyTiles > 0) {
+                    fen.append(emptyTiles);
+                    emptyTiles = 0;
+                }
+                final String pieceName = piece.getPieceType().toString();
+                fen.append(piece.getPieceAlliance().isWhite() ? pieceName : pieceName.toLowerCase());
+            }
+            if ((coordinate + 1) % BoardUtils.NUM_TILES_PER_ROW == 0) {
+                if (emptyTiles > 0) {
+                    fen.append(emptyTiles);
+                    emptyTiles = 0;
+                }
+                if (coordinate != BoardUtils.NUM_TILES - 1) {
+                    fen.append('/');
+                }
+            }
+        }
+        fen.append(board.currentPlayer().getAlliance().isWhite() ? " w " : " b ");
+        fen.append(calculateCastleText(board.getCastlingRights())).append(' ');
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        fen.append(enPassantPawn == null ? "-" : BoardUtils.getPositionAtCoordinate(enPassantPawn.getPiecePosition() +
+                (enPassantPawn.getPieceAlliance().getOppositeDirection() * BoardUtils.NUM_TILES_PER_ROW)));
+        return fen.append(" 0 1").toString();
+    }
+
+    private static String calculateCastleText(final int castlingRights) {
+        final StringBuilder castleText = new StringBuilder();
+        if ((castlingRights & BoardUtils.WHITE_KING_SIDE_CASTLE) != 0) {
+            castleText.append('K');
+        }
+        if ((castlingRights & BoardUtils.WHITE_QUEEN_SIDE_CASTLE) != 0) {
+            castleText.append('Q');
+        }
+        if ((castlingRights & BoardUtils.BLACK_KING_SIDE_CASTLE) != 0) {
+            castleText.append('k');
+        }
+        if ((castlingRights & BoardUtils.BLACK_QUEEN_SIDE_CASTLE) != 0) {
+            castleText.append('q');
+        }
+        return castleText.length() == 0 ? "-" : castleText.toString();
+    }
+
+    private static PieceType pieceTypeOf(final char fenChar, final String fenString) {
+        switch (Character.toUpperCase(fenChar)) {
+            case 'P':
+                return PieceType.PAWN;
+            case 'N':
+                return PieceType.KNIGHT;
+            case 'B':
+                return PieceType.BISHOP;
+            case 'R':
+                return PieceType.ROOK;
+            case 'Q':
+                return PieceType.QUEEN;
+            case 'K':
+                return PieceType.KING;
+            default:
+                throw new IllegalArgumentException("Invalid FEN " + fenString);
+        }
+    }
+
+    private static boolean isFirstMove(final PieceType pieceType,
+                                       final Alliance alliance,
+                                       final int coordinate,
+                                       final String castlingRights) {
+        final boolean isWhite = alliance.isWhite();
+        switch (pieceType) {
+            case PAWN:
+                return isWhite ? BoardUtils.SECOND_RANK[coordinate] : BoardUtils.SEVENTH_RANK[coordinate];
+            case KING:
+                return isWhite ? coordinate == 60 && (castlingRights.contains("K") || castlingRights.contains("Q")) :
+                        coordinate == 4 && (castlingRights.contains("k") || castlingRights.contains("q"));
+            case ROOK:
+                if (isWhite) {
+                    return (coordinate == 63 && castlingRights.contains("K")) || (coordinate == 56 && castlingRights.contains("Q"));
+                }
+                return (coordinate == 7 && castlingRights.contains("k")) || (coordinate == 0 && castlingRights.contains("q"));
+            default:
+                return false;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.chess.pgn;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.PawnPromotion;
+import com.chess.engine.pieces.Piece.PieceType;
 import com.chess.gui.Table.MoveLog;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
@@ -25,6 +27,7 @@ public class PGNUtilities {
     private static final Pattern MAJOR_ATTACK_MOVE = Pattern.compile("^(B|N|R|Q|K)([a-h]|[1-8])?(x)([a-h][0-8])(\\+)?(#)?$");
     private static final Pattern PLAIN_PAWN_PROMOTION_MOVE = Pattern.compile("(.*?)=(.*?)");
     private static final Pattern ATTACK_PAWN_PROMOTION_MOVE = Pattern.compile("(.*?)x(.*?)=(.*?)");
+    private static final Pattern PROMOTION_PIECE = Pattern.compile("=(N|B|R|Q)");
 
     private PGNUtilities() {
         throw new RuntimeException("Not Instantiable!");
@@ -204,12 +207,12 @@ public class PGNUtilities {
             final String disambiguationFile = attackPawnPromotionMatcher.group(1) != null ? attackPawnPromotionMatcher.group(1) : "";
             destinationCoordinate = BoardUtils.INSTANCE.getCoordinateAtPosition(destinationSquare);
             currentCoordinate = deriveCurrentCoordinate(board, "P", destinationSquare, disambiguationFile);
-            return MoveFactory.createMove(board, currentCoordinate, destinationCoordinate);
+            return createPromotionMove(board, currentCoordinate, destinationCoordinate, pgnText);
         } else if(pawnPromotionMatcher.find()) {
             final String destinationSquare = pawnPromotionMatcher.group(1);
             destinationCoordinate = BoardUtils.INSTANCE.getCoordinateAtPosition(destinationSquare);
             currentCoordinate = deriveCurrentCoordinate(board, "P", destinationSquare, "");
-            return MoveFactory.createMove(board, currentCoordinate, destinationCoordinate);
+            return createPromotionMove(board, currentCoordinate, destinationCoordinate, pgnText);
         } else if (plainMajorMatcher.find()) {
             final String destinationSquare = plainMajorMatcher.group(3);
             destinationCoordinate = BoardUtils.INSTANCE.getCoordinateAtPosition(destinationSquare);
@@ -228,6 +231,23 @@ public class PGNUtilities {
 
     }
 
+    //the piece after the "=", a queen when the text leaves it out
+    private static Move createPromotionMove(final Board board,
+                                            final int currentCoordinate,
+                                            final int destinationCoordinate,
+                                            final String pgnText) {
+        final Matcher promotionPieceMatcher = PROMOTION_PIECE.matcher(pgnText);
+        final String promotionPiece = promotionPieceMatcher.find() ? promotionPieceMatcher.group(1) : PieceType.QUEEN.toString();
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            if (move instanceof PawnPromotion && move.getCurrentCoordinate() == currentCoordinate &&
+                    move.getDestinationCoordinate() == destinationCoordinate &&
+                    ((PawnPromotion) move).getPromotionType().toString().equals(promotionPiece)) {
+                return move;
+            }
+        }
+        return MoveFactory.getNullMove();
+    }
+
     private static Move extractCastleMove(final Board board,
                                           final String castleMove) {
         for (final Move move : board.currentPlayer().getLegalMoves()) {
@@ -245,7 +265,9 @@ public class PGNUtilities {
         final List<Move> currentCandidates = new ArrayList<>();
         final int destinationCoordinate =  BoardUtils.INSTANCE.getCoordinateAtPosition(destinationSquare);
         for (final Move move : board.currentPlayer().getLegalMoves()) {
-            if (move.getDestinationCoordinate() == destinationCoordinate && move.getMovedPiece().toString().equals(movedPiece)) {
+            //a pawn's promotions, one per piece, are a single candidate
+            if (move.getDestinationCoordinate() == destinationCoordinate && move.getMovedPiece().toString().equals(movedPiece) &&
+                    !hasSameSource(currentCandidates, move)) {
                 currentCandidates.add(move);
             }
         }
@@ -260,6 +282,16 @@ public class PGNUtilities {
 
     }
 
+    private static boolean hasSameSource(final List<Move> moves,
+                                         final Move move) {
+        for (final Move other : moves) {
+            if (other.getCurrentCoordinate() == move.getCurrentCoordinate()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static int extractFurther(final List<Move> candidateMoves,
                                       final String movedPiece,
                                       final String disambiguationFile) {